@@ -0,0 +1,224 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import priorityqueue.AbstractPQ;
+import priorityqueue.Entry;
+
+/**
+ * A thread-safe priority queue for many producers and consumers, based on the
+ * MultiQueue design.
+ *
+ * Instead of a single heap behind a global lock, the queue is split into
+ * {@code c} independent HeapPQ instances, each guarded by its own lock:
+ * <ul>
+ *   <li>{@code insert} adds the entry to a randomly chosen heap whose lock is free;</li>
+ *   <li>{@code removeMin} samples two random heaps, reads their minimum keys
+ *       (published without locking) and removes the minimum of the better one.</li>
+ * </ul>
+ * Threads only contend when they pick the same heap at the same moment, and
+ * {@code tryLock} lets them move on to another heap instead of waiting.
+ *
+ * <p><b>Relaxation.</b> With more than one heap, removeMin is not guaranteed to
+ * return the global minimum: it returns one of the smallest entries, whose
+ * expected rank grows linearly with the number of heaps (the "power of two
+ * choices" keeps it close to the top). The number of heaps is therefore the
+ * knob trading ordering for throughput: {@code new ConcurrentHeapPQ<>(1)}
+ * behaves as a strictly ordered, lock-protected heap, while the default of
+ * two heaps per available processor favours throughput.</p>
+ *
+ * <p>{@code size()} is exact once all operations have completed; {@code min()}
+ * is a best-effort snapshot while other threads are modifying the queue, and
+ * {@code removeMin()} returns null only if the queue was observed empty.</p>
+ *
+ * <p>The time complexities of the key methods are as follows (without contention):
+ * <ul>
+ *   <li>{@code insert(K key, V value)} - O(log(n/c))</li>
+ *   <li>{@code removeMin()} - O(log(n/c))</li>
+ *   <li>{@code min()} - O(c)</li>
+ * </ul>
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class ConcurrentHeapPQ<K,V> extends AbstractPQ<K,V> {
+
+    private final HeapPQ<K,V>[] queues;
+    private final ReentrantLock[] locks;
+    private final AtomicReferenceArray<Entry<K,V>> tops;    // published minimum of every heap
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs an empty queue with two heaps per available processor,
+     * using the natural ordering of the keys.
+     */
+    public ConcurrentHeapPQ() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty queue with the given number of heaps, using the
+     * natural ordering of the keys.
+     *
+     * @param queues The number of internal heaps; 1 gives strict ordering.
+     * @throws IllegalArgumentException if queues is less than 1.
+     */
+    public ConcurrentHeapPQ(int queues) throws IllegalArgumentException {
+        super();
+        if (queues < 1)
+            throw new IllegalArgumentException("At least one queue is required");
+        this.queues = newHeaps(queues);
+        for (int i = 0; i < queues; i++)
+            this.queues[i] = new HeapPQ<>();
+        locks = newLocks(queues);
+        tops = new AtomicReferenceArray<>(queues);
+    }
+
+    /**
+     * Constructs an empty queue with the given number of heaps, using the
+     * specified comparator.
+     *
+     * @param queues The number of internal heaps; 1 gives strict ordering.
+     * @param comp   The comparator defining the order of keys.
+     * @throws IllegalArgumentException if queues is less than 1.
+     */
+    public ConcurrentHeapPQ(int queues, Comparator<K> comp) throws IllegalArgumentException {
+        super(comp);
+        if (queues < 1)
+            throw new IllegalArgumentException("At least one queue is required");
+        this.queues = newHeaps(queues);
+        for (int i = 0; i < queues; i++)
+            this.queues[i] = new HeapPQ<>(comp);
+        locks = newLocks(queues);
+        tops = new AtomicReferenceArray<>(queues);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K,V> HeapPQ<K,V>[] newHeaps(int n) {
+        return new HeapPQ[n];
+    }
+
+    private static ReentrantLock[] newLocks(int n) {
+        ReentrantLock[] locks = new ReentrantLock[n];
+        for (int i = 0; i < n; i++)
+            locks[i] = new ReentrantLock();
+        return locks;
+    }
+
+    /**
+     * Returns the number of internal heaps, i.e. the relaxation factor.
+     *
+     * @return The number of heaps.
+     */
+    public int queues() {
+        return queues.length;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns an entry with the smallest key among the published minima of the heaps.
+     *
+     * @return An entry with minimal key, or null if the queue is empty.
+     */
+    public Entry<K,V> min() {
+        Entry<K,V> best = null;
+        for (int i = 0; i < queues.length; i++) {
+            Entry<K,V> top = tops.get(i);
+            if (top != null && (best == null || compare(top, best) < 0))
+                best = top;
+        }
+        return best;
+    }
+
+    /**
+     * Inserts a new entry into a randomly chosen heap.
+     *
+     * @param key   The key associated with the entry.
+     * @param value The value associated with the entry.
+     * @return The newly created entry.
+     * @throws IllegalArgumentException if the key is invalid.
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(queues.length);
+            if (!acquire(i))
+                continue;   // busy, try another heap
+            try {
+                Entry<K,V> newest = queues[i].insert(key, value);
+                tops.set(i, queues[i].min());
+                size.incrementAndGet();
+                return newest;
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns one of the smallest entries: the minimum of the
+     * better of two randomly sampled heaps.
+     *
+     * @return The removed entry, or null if the queue is empty.
+     */
+    public Entry<K,V> removeMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (size.get() > 0) {
+            int i = random.nextInt(queues.length);
+            int j = random.nextInt(queues.length);
+            Entry<K,V> a = tops.get(i);
+            Entry<K,V> b = tops.get(j);
+            if (a == null && b == null) {
+                i = nonEmptyQueue(random.nextInt(queues.length));
+                if (i < 0)
+                    continue;   // the remaining entries are being moved by other threads
+            }
+            else if (a == null || (b != null && compare(b, a) < 0))
+                i = j;
+            if (!acquire(i))
+                continue;
+            try {
+                Entry<K,V> removed = queues[i].removeMin();
+                if (removed == null)
+                    continue;   // emptied by another thread after sampling
+                tops.set(i, queues[i].min());
+                size.decrementAndGet();
+                return removed;
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Locks heap i if it is free; with a single heap there is no other to try,
+     * so the lock is waited for instead of spinning on tryLock.
+     */
+    private boolean acquire(int i) {
+        if (queues.length == 1) {
+            locks[i].lock();
+            return true;
+        }
+        return locks[i].tryLock();
+    }
+
+    /** Returns the index of a heap with a published minimum, scanning from start, or -1. */
+    private int nonEmptyQueue(int start) {
+        for (int k = 0; k < queues.length; k++) {
+            int i = (start + k) % queues.length;
+            if (tops.get(i) != null)
+                return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,157 @@
+package heap;
+
+import java.util.Comparator;
+
+import priorityqueue.Entry;
+
+/**
+ * An implementation of a priority queue based on a d-ary heap.
+ *
+ * This class generalizes the binary heap of HeapPQ: every node has up to
+ * {@code d} children instead of two, so the children of the entry at index
+ * {@code j} are stored at indices {@code d*j + 1} ... {@code d*j + d} and its
+ * parent at index {@code (j-1) / d}. The entries still live in the same
+ * array-based list, so the PriorityQueue contract and the AbstractPQ
+ * comparator handling are inherited unchanged.
+ *
+ * <p>The height of the tree drops from log2(n) to log_d(n): up-heap (used by
+ * insert) performs fewer steps, while down-heap (used by removeMin) performs
+ * fewer levels but compares up to d children per level. Since the children of
+ * a node are contiguous in the array, a 4- or 8-ary layout usually touches
+ * fewer cache lines than the binary one on large heaps.</p>
+ *
+ * <p>The time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code insert(K key, V value)} - O(log_d n)</li>
+ *   <li>{@code removeMin()} - O(d log_d n)</li>
+ *   <li>{@code min()} - O(1)</li>
+ * </ul>
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class DaryHeapPQ<K,V> extends HeapPQ<K,V> {
+
+    /** The arity used by the default constructors. */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int d;    // number of children of each node
+
+    /**
+     * Constructs an empty 4-ary heap using the natural ordering of the keys.
+     */
+    public DaryHeapPQ() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructs an empty d-ary heap using the natural ordering of the keys.
+     *
+     * @param arity The number of children of each node, at least 2.
+     * @throws IllegalArgumentException if the arity is less than 2.
+     */
+    public DaryHeapPQ(int arity) throws IllegalArgumentException {
+        super();
+        d = checkArity(arity);
+    }
+
+    /**
+     * Constructs an empty d-ary heap using the specified comparator.
+     *
+     * @param arity The number of children of each node, at least 2.
+     * @param comp  The comparator defining the order of keys.
+     * @throws IllegalArgumentException if the arity is less than 2.
+     */
+    public DaryHeapPQ(int arity, Comparator<K> comp) throws IllegalArgumentException {
+        super(comp);
+        d = checkArity(arity);
+    }
+
+    /**
+     * Constructs a d-ary heap from the given keys and values using bottom-up
+     * construction in O(n).
+     *
+     * @param arity  The number of children of each node, at least 2.
+     * @param keys   The keys of the entries.
+     * @param values The values of the entries.
+     * @throws IllegalArgumentException if the arity is less than 2.
+     */
+    public DaryHeapPQ(int arity, K[] keys, V[] values) throws IllegalArgumentException {
+        this(arity);
+        for (int j = 0; j < Math.min(keys.length, values.length); j++)
+            heap.add(new PQEntry<K,V>(keys[j], values[j]));
+        heapify();
+    }
+
+    /**
+     * Constructs a d-ary heap from the given keys and values using the specified
+     * comparator and bottom-up construction in O(n).
+     *
+     * @param arity  The number of children of each node, at least 2.
+     * @param comp   The comparator defining the order of keys.
+     * @param keys   The keys of the entries.
+     * @param values The values of the entries.
+     * @throws IllegalArgumentException if the arity is less than 2.
+     */
+    public DaryHeapPQ(int arity, Comparator<K> comp, K[] keys, V[] values) throws IllegalArgumentException {
+        this(arity, comp);
+        for (int j = 0; j < Math.min(keys.length, values.length); j++)
+            heap.add(new PQEntry<K,V>(keys[j], values[j]));
+        heapify();
+    }
+
+    private static int checkArity(int arity) throws IllegalArgumentException {
+        if (arity < 2)
+            throw new IllegalArgumentException("Arity must be at least 2");
+        return arity;
+    }
+
+    /**
+     * Returns the number of children of each node.
+     *
+     * @return The arity of the heap.
+     */
+    public int arity() {
+        return d;
+    }
+
+    @Override
+    protected int parent(int j) {
+        return (j-1) / d;
+    }
+
+    /** Returns the index of the first (leftmost) child of the entry at index j. */
+    @Override
+    protected int left(int j) {
+        return d * j + 1;
+    }
+
+    /** Returns the index of the last (rightmost) child of the entry at index j. */
+    @Override
+    protected int right(int j) {
+        return d * j + d;
+    }
+
+    @Override
+    protected void donwheap(int j) {
+        int n = heap.size();
+        while (hasLeft(j)) {
+            int first = left(j);
+            int last = Math.min(first + d, n);  // children are contiguous in [first, last)
+            int smallChildIndex = first;
+            Entry<K,V> smallChild = heap.get(first);
+            for (int c = first + 1; c < last; c++) {
+                Entry<K,V> child = heap.get(c);
+                if(compare(child, smallChild) < 0) {
+                    smallChildIndex = c;
+                    smallChild = child;
+                }
+            }
+            if(compare(smallChild, heap.get(j)) >= 0)
+                break;  // sorting done
+            swap(smallChildIndex, j);
+            j = smallChildIndex;
+        }
+    }
+}
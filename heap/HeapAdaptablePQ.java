@@ -2,13 +2,14 @@ package heap;
 
 import java.util.Comparator;
 
+import priorityqueue.AdaptablePriorityQueue;
 import priorityqueue.Entry;
 
 /**
  * An implementation of an adaptable priority queue based on a binary heap.
  * 
  * This class extends the standard heap-based priority queue to support 
- * additional operations such as removal and value replacement of arbitrary 
+ * additional operations such as removal, key and value replacement of arbitrary 
  * elements. The main feature of this implementation is the use of 
  * AdaptablePQEntry, which tracks the position of each entry in the heap, 
  * allowing efficient updates and removals.
@@ -21,7 +22,7 @@ import priorityqueue.Entry;
  * @param <K> The type of the keys.
  * @param <V> The type of the values.
  */
-public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> {
+public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> implements AdaptablePriorityQueue<K,V> {
     
     /**
      * Nested class representing an entry in the adaptable priority queue.
@@ -64,6 +65,16 @@ public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> {
         public void setIndex(int j) {
             index = j;
         }
+
+        /**
+         * Sets the key of this entry, making it visible to the enclosing queue.
+         *
+         * @param key The new key.
+         */
+        @Override
+        protected void setKey(K key) {
+            super.setKey(key);
+        }
     }
 
     /**
@@ -123,6 +134,20 @@ public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> {
             donwheap(j);
     }
 
+    @Override
+    protected Entry<K,V> newEntry(K key, V value, int j) {
+        return new AdaptablePQEntry<>(key, value, j);
+    }
+
+    @Override
+    protected Entry<K,V> adopt(Entry<K,V> e, int j) {
+        if(!(e instanceof AdaptablePQEntry))
+            return new AdaptablePQEntry<>(e.getKey(), e.getValue(), j);
+        AdaptablePQEntry<K,V> locator = (AdaptablePQEntry<K,V>) e;
+        locator.setIndex(j);
+        return locator;
+    }
+
     /**
      * Inserts a new entry into the priority queue.
      *
@@ -157,6 +182,57 @@ public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> {
         }
     }
 
+    /**
+     * Replaces the key associated with a given entry and restores the heap
+     * order with a single up-heap or down-heap, without removing the entry.
+     *
+     * @param entry The entry to update.
+     * @param key   The new key.
+     * @throws IllegalArgumentException if the entry or the key is invalid.
+     */
+    public void replaceKey(Entry<K,V> entry, K key) throws IllegalArgumentException {
+        AdaptablePQEntry<K,V> locator = validate(entry);
+        checkKey(key);
+        locator.setKey(key);
+        bubble(locator.getIndex());
+    }
+
+    /**
+     * Replaces the keys of many entries at once.
+     *
+     * The i-th entry receives the i-th key. When the batch is small each entry
+     * is bubbled on its own, costing O(k log n) for k updates; when k log n
+     * reaches n the keys are all written first and the heap is rebuilt once
+     * bottom-up in O(n).
+     * All entries and keys are validated before the queue is modified.
+     *
+     * @param entries The entries to update.
+     * @param keys    The new keys, in the same order as the entries.
+     * @throws IllegalArgumentException if the arrays differ in length or an entry or key is invalid.
+     */
+    public void replaceKeys(Entry<K,V>[] entries, K[] keys) throws IllegalArgumentException {
+        if(entries.length != keys.length)
+            throw new IllegalArgumentException("Entries and keys must have the same length");
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        AdaptablePQEntry<K,V>[] locators = new AdaptablePQEntry[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            locators[i] = validate(entries[i]);
+            checkKey(keys[i]);
+        }
+        int n = heap.size();
+        int log = 32 - Integer.numberOfLeadingZeros(n);    // about log2(n)
+        if((long) locators.length * log >= n) {
+            for (int i = 0; i < locators.length; i++)
+                locators[i].setKey(keys[i]);
+            heapify();                      // one O(n) rebuild
+        }
+        else
+            for (int i = 0; i < locators.length; i++) {
+                locators[i].setKey(keys[i]);
+                bubble(locators[i].getIndex());
+            }
+    }
+
     /**
      * Replaces the value associated with a given entry.
      *
@@ -164,7 +240,7 @@ public class HeapAdaptablePQ<K,V> extends HeapPQ<K,V> {
      * @param value The new value.
      * @throws IllegalArgumentException if the entry is invalid.
      */
-    protected void replaceValue(Entry<K,V> entry, V value) throws IllegalArgumentException{
+    public void replaceValue(Entry<K,V> entry, V value) throws IllegalArgumentException{
         AdaptablePQEntry<K,V> locator = validate(entry);
         locator.setValue(value);
     }
@@ -0,0 +1,156 @@
+package heap;
+
+import java.util.Random;
+
+import priorityqueue.AdaptablePriorityQueue;
+import priorityqueue.Entry;
+import priorityqueue.PriorityQueue;
+
+/**
+ * A small throughput benchmark for the heap-based priority queues.
+ *
+ * Every run inserts {@code n} random keys and then empties the queue with
+ * removeMin, reporting the millions of operations per second of each phase.
+ * A few warm-up rounds are executed first so that the JIT has compiled the
+ * hot loops before timings are taken. Results are indicative only: for
+ * rigorous numbers use a dedicated harness such as JMH.
+ *
+ * <p>Usage: {@code java heap.HeapBenchmark [n] [rounds]}</p>
+ */
+public class HeapBenchmark {
+
+    /** Factory used to build a fresh queue for every round. */
+    private interface PQFactory {
+        PriorityQueue<Long,Integer> create();
+    }
+
+    /** Factory used to build a fresh adaptable queue for every round. */
+    private interface AdaptablePQFactory {
+        AdaptablePriorityQueue<Long,Integer> create();
+    }
+
+    private static long[] randomKeys(int n, long seed) {
+        Random random = new Random(seed);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = random.nextLong();
+        return keys;
+    }
+
+    private static void run(String name, PQFactory factory, long[] keys, int rounds, boolean report) {
+        int n = keys.length;
+        long bestInsert = Long.MAX_VALUE;
+        long bestRemove = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            PriorityQueue<Long,Integer> pq = factory.create();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                pq.insert(keys[i], i);
+            long middle = System.nanoTime();
+            long last = Long.MIN_VALUE;
+            while (!pq.isEmpty()) {
+                long key = pq.removeMin().getKey();
+                if (key < last)
+                    throw new IllegalStateException(name + " returned keys out of order");
+                last = key;
+            }
+            long end = System.nanoTime();
+            bestInsert = Math.min(bestInsert, middle - start);
+            bestRemove = Math.min(bestRemove, end - middle);
+        }
+        if (report)
+            System.out.printf("%-24s insert %8.2f Mops/s   removeMin %8.2f Mops/s%n",
+                    name, n * 1e3 / bestInsert, n * 1e3 / bestRemove);
+    }
+
+    private static void runPrimitive(String name, long[] keys, int rounds, boolean report) {
+        int n = keys.length;
+        long bestInsert = Long.MAX_VALUE;
+        long bestRemove = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            LongIntHeapPQ pq = new LongIntHeapPQ();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                pq.insert(keys[i], i);
+            long middle = System.nanoTime();
+            long last = Long.MIN_VALUE;
+            while (!pq.isEmpty()) {
+                long key = pq.minPriority();
+                if (key < last)
+                    throw new IllegalStateException(name + " returned keys out of order");
+                last = key;
+                pq.removeMin();
+            }
+            long end = System.nanoTime();
+            bestInsert = Math.min(bestInsert, middle - start);
+            bestRemove = Math.min(bestRemove, end - middle);
+        }
+        if (report)
+            System.out.printf("%-24s insert %8.2f Mops/s   removeMin %8.2f Mops/s%n",
+                    name, n * 1e3 / bestInsert, n * 1e3 / bestRemove);
+    }
+
+    /**
+     * Dijkstra-like workload: inserts n keys, decreases the key of n random
+     * entries through their locators, then empties the queue.
+     */
+    @SuppressWarnings("unchecked")
+    private static void runAdaptable(String name, AdaptablePQFactory factory, long[] keys, int rounds, boolean report) {
+        int n = keys.length;
+        Random random = new Random(13);
+        int[] targets = new int[n];
+        for (int i = 0; i < n; i++)
+            targets[i] = random.nextInt(n);
+        long bestInsert = Long.MAX_VALUE;
+        long bestDecrease = Long.MAX_VALUE;
+        long bestRemove = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            AdaptablePriorityQueue<Long,Integer> pq = factory.create();
+            Entry<?,?>[] entries = new Entry<?,?>[n];
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                entries[i] = pq.insert(keys[i], i);
+            long afterInsert = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                Entry<Long,Integer> e = (Entry<Long,Integer>) entries[targets[i]];
+                long key = e.getKey();
+                pq.replaceKey(e, key - (key >>> 4) - 1);   // always a strict decrease
+            }
+            long afterDecrease = System.nanoTime();
+            while (!pq.isEmpty())
+                pq.removeMin();
+            long end = System.nanoTime();
+            bestInsert = Math.min(bestInsert, afterInsert - start);
+            bestDecrease = Math.min(bestDecrease, afterDecrease - afterInsert);
+            bestRemove = Math.min(bestRemove, end - afterDecrease);
+        }
+        if (report)
+            System.out.printf("%-24s insert %8.2f Mops/s   decreaseKey %8.2f Mops/s   removeMin %8.2f Mops/s%n",
+                    name, n * 1e3 / bestInsert, n * 1e3 / bestDecrease, n * 1e3 / bestRemove);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long[] keys = randomKeys(n, 42);
+
+        // warm-up on a smaller input
+        long[] warmup = randomKeys(Math.min(n, 100_000), 7);
+        for (int i = 0; i < 3; i++) {
+            run("HeapPQ", HeapPQ::new, warmup, 1, false);
+            run("DaryHeapPQ", () -> new DaryHeapPQ<>(4), warmup, 1, false);
+            runPrimitive("LongIntHeapPQ", warmup, 1, false);
+            runAdaptable("HeapAdaptablePQ", HeapAdaptablePQ::new, warmup, 1, false);
+            runAdaptable("PairingHeapPQ", PairingHeapPQ::new, warmup, 1, false);
+        }
+
+        System.out.println("n = " + n + ", best of " + rounds + " rounds");
+        run("HeapPQ (binary)", HeapPQ::new, keys, rounds, true);
+        run("DaryHeapPQ d=2", () -> new DaryHeapPQ<>(2), keys, rounds, true);
+        run("DaryHeapPQ d=4", () -> new DaryHeapPQ<>(4), keys, rounds, true);
+        run("DaryHeapPQ d=8", () -> new DaryHeapPQ<>(8), keys, rounds, true);
+        runPrimitive("LongIntHeapPQ", keys, rounds, true);
+        runAdaptable("HeapAdaptablePQ", HeapAdaptablePQ::new, keys, rounds, true);
+        runAdaptable("PairingHeapPQ", PairingHeapPQ::new, keys, rounds, true);
+    }
+}
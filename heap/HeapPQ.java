@@ -128,4 +128,117 @@ public class HeapPQ<K,V> extends AbstractPQ<K,V> {
         donwheap(0);
         return olditem;
     }
+
+    /**
+     * Replaces the minimum entry with a new one, performing a single down-heap
+     * instead of a removeMin followed by an insert. On an empty queue the
+     * entry is simply inserted.
+     *
+     * @param key   The key of the new entry.
+     * @param value The value of the new entry.
+     * @return The entry that was removed, or null if the queue was empty.
+     * @throws IllegalArgumentException if the key is invalid.
+     */
+    public Entry<K,V> replaceMin(K key, V value) throws IllegalArgumentException {
+        if(heap.isEmpty()) {
+            insert(key, value);
+            return null;
+        }
+        checkKey(key);
+        Entry<K,V> olditem = heap.get(0);
+        heap.set(0, newEntry(key, value, 0));
+        donwheap(0);
+        return olditem;
+    }
+
+    /**
+     * Restores the heap order after the key of the minimum entry has changed
+     * in place, as happens with mutable keys, with a single down-heap and no
+     * new entry. Does nothing on an empty queue.
+     */
+    public void siftRoot() {
+        if(!heap.isEmpty())
+            donwheap(0);
+    }
+
+    /**
+     * Adds a batch of entries to the queue. A small batch is inserted one entry
+     * at a time in O(k log n); when k log(n+k) reaches n+k the entries are
+     * appended and the whole heap is rebuilt bottom-up in O(n+k).
+     * All keys are validated before the queue is modified.
+     *
+     * @param keys   The keys of the new entries.
+     * @param values The values of the new entries.
+     * @throws IllegalArgumentException if the arrays differ in length or a key is invalid.
+     */
+    public void addAll(K[] keys, V[] values) throws IllegalArgumentException {
+        if(keys.length != values.length)
+            throw new IllegalArgumentException("Keys and values must have the same length");
+        int k = keys.length;
+        for (int j = 0; j < k; j++)
+            checkKey(keys[j]);
+        if(!isLargeBatch(k)) {
+            for (int j = 0; j < k; j++)
+                insert(keys[j], values[j]);
+            return;
+        }
+        for (int j = 0; j < k; j++)
+            heap.add(newEntry(keys[j], values[j], heap.size()));
+        heapify();
+    }
+
+    /**
+     * Moves all the entries of another heap into this one, leaving the other
+     * heap empty. The same strategy as addAll is used: the entries are either
+     * up-heaped one by one or appended and followed by a single heapify, so
+     * melding never costs more than O(n+k). The entries keep their identity,
+     * so they remain valid for the queue they are moved into.
+     * All keys of the other heap are validated before either heap is modified.
+     *
+     * @param other The heap to merge into this one; it must order keys consistently with this heap.
+     * @throws IllegalArgumentException if other is this heap or holds an invalid key.
+     */
+    public void meld(HeapPQ<K,V> other) throws IllegalArgumentException {
+        if(other == this)
+            throw new IllegalArgumentException("Can't meld a heap with itself");
+        int k = other.size();
+        for (int j = 0; j < k; j++)
+            checkKey(other.heap.get(j).getKey());
+        boolean rebuild = isLargeBatch(k);
+        for (int j = 0; j < k; j++) {
+            Entry<K,V> e = other.heap.get(j);
+            int index = heap.size();
+            heap.add(adopt(e, index));
+            if(!rebuild)
+                upheap(index);
+        }
+        if(rebuild)
+            heapify();
+        other.heap = new ArrayList<>();
+    }
+
+    /**
+     * Returns true when adding k entries is cheaper with a bottom-up rebuild
+     * than with k separate up-heaps.
+     */
+    protected boolean isLargeBatch(int k) {
+        int n = heap.size() + k;
+        int log = 32 - Integer.numberOfLeadingZeros(n);    // about log2(n)
+        return k > 0 && (long) k * log >= n;
+    }
+
+    /**
+     * Prepares an entry coming from another heap to be stored at index j;
+     * subclasses override it to update their own bookkeeping.
+     */
+    protected Entry<K,V> adopt(Entry<K,V> e, int j) {
+        return e;
+    }
+
+    /**
+     * Creates the entry stored at index j; subclasses override it to use their own entry type.
+     */
+    protected Entry<K,V> newEntry(K key, V value, int j) {
+        return new PQEntry<>(key, value);
+    }
 }
@@ -0,0 +1,271 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import priorityqueue.DefaultComparator;
+import priorityqueue.EmptyPriorityQueueException;
+
+/**
+ * An indexed priority queue whose elements are the dense integer ids 0..n-1.
+ *
+ * HeapAdaptablePQ hands out an entry object per element, and the caller must
+ * keep those locators to update priorities later. Here the element is its own
+ * locator: the binary heap stores ids in an {@code int[]}, the key of every id
+ * lives in a {@code K[]} indexed by id, and a second {@code int[]} maps each id
+ * to its current position in the heap (-1 when absent). No object is
+ * allocated per element, and every operation addresses elements by id.
+ *
+ * <p>The time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code insert(int id, K key)} - O(log n)</li>
+ *   <li>{@code changeKey(int id, K key)} - O(log n)</li>
+ *   <li>{@code remove(int id)}, {@code removeMin()} - O(log n)</li>
+ *   <li>{@code contains(int id)}, {@code keyOf(int id)}, {@code minId()} - O(1)</li>
+ * </ul>
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ */
+public class IndexedHeapPQ<K> {
+
+    private final Comparator<K> comp;
+    private final int[] heap;   // heap[j] is the id stored at position j
+    private final int[] pos;    // pos[id] is the position of id in heap, or -1
+    private final K[] keys;     // keys[id] is the key of id, meaningful only if contained
+    private int size = 0;
+
+    /**
+     * Constructs an empty queue for ids 0..capacity-1, using the natural ordering of the keys.
+     *
+     * @param capacity The number of ids.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public IndexedHeapPQ(int capacity) throws IllegalArgumentException {
+        this(capacity, new DefaultComparator<K>());
+    }
+
+    /**
+     * Constructs an empty queue for ids 0..capacity-1, using the specified comparator.
+     *
+     * @param capacity The number of ids.
+     * @param comp     The comparator defining the order of keys.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedHeapPQ(int capacity, Comparator<K> comp) throws IllegalArgumentException {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.comp = comp;
+        heap = new int[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+        keys = (K[]) new Object[capacity];
+    }
+
+    private void checkId(int id) throws IllegalArgumentException {
+        if (id < 0 || id >= pos.length)
+            throw new IllegalArgumentException("Illegal id: " + id + ", capacity was " + pos.length);
+    }
+
+    private void checkContained(int id) throws IllegalArgumentException {
+        checkId(id);
+        if (pos[id] < 0)
+            throw new IllegalArgumentException("Id not in the queue: " + id);
+    }
+
+    private void checkKey(K key) throws IllegalArgumentException {
+        try {
+            comp.compare(key, key);
+        } catch (ClassCastException | NullPointerException e) {
+            throw new IllegalArgumentException("Incompatible key");
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of ids this queue can hold.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return pos.length;
+    }
+
+    /**
+     * Returns true if the given id is in the queue.
+     *
+     * @param id The id to look for.
+     * @return true if the id is in the queue.
+     * @throws IllegalArgumentException if the id is out of range.
+     */
+    public boolean contains(int id) throws IllegalArgumentException {
+        checkId(id);
+        return pos[id] >= 0;
+    }
+
+    /**
+     * Returns the key of the given id.
+     *
+     * @param id The id.
+     * @return Its key.
+     * @throws IllegalArgumentException if the id is out of range or not in the queue.
+     */
+    public K keyOf(int id) throws IllegalArgumentException {
+        checkContained(id);
+        return keys[id];
+    }
+
+    /**
+     * Returns the id with minimal key.
+     *
+     * @return The id at the root of the heap.
+     * @throws EmptyPriorityQueueException if the queue is empty.
+     */
+    public int minId() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        return heap[0];
+    }
+
+    /**
+     * Returns the minimal key.
+     *
+     * @return The key of the id at the root of the heap.
+     * @throws EmptyPriorityQueueException if the queue is empty.
+     */
+    public K minKey() throws EmptyPriorityQueueException {
+        return keys[minId()];
+    }
+
+    /**
+     * Inserts an id with the given key.
+     *
+     * @param id  The id to insert.
+     * @param key Its key.
+     * @throws IllegalArgumentException if the id is out of range or already present, or the key is invalid.
+     */
+    public void insert(int id, K key) throws IllegalArgumentException {
+        checkId(id);
+        if (pos[id] >= 0)
+            throw new IllegalArgumentException("Id already in the queue: " + id);
+        checkKey(key);
+        keys[id] = key;
+        heap[size] = id;
+        pos[id] = size;
+        upheap(size++);
+    }
+
+    /**
+     * Removes the id with minimal key and returns it.
+     *
+     * @return The removed id.
+     * @throws EmptyPriorityQueueException if the queue is empty.
+     */
+    public int removeMin() throws EmptyPriorityQueueException {
+        int id = minId();
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * Removes the given id from the queue.
+     *
+     * @param id The id to remove.
+     * @throws IllegalArgumentException if the id is out of range or not in the queue.
+     */
+    public void remove(int id) throws IllegalArgumentException {
+        checkContained(id);
+        removeAt(pos[id]);
+    }
+
+    /**
+     * Replaces the key of the given id, moving it up or down as needed.
+     *
+     * @param id  The id to update.
+     * @param key The new key.
+     * @throws IllegalArgumentException if the id is out of range or not in the queue, or the key is invalid.
+     */
+    public void changeKey(int id, K key) throws IllegalArgumentException {
+        checkContained(id);
+        checkKey(key);
+        keys[id] = key;
+        bubble(pos[id]);
+    }
+
+    /**
+     * Inserts the id if absent, otherwise replaces its key.
+     *
+     * @param id  The id.
+     * @param key The key.
+     * @throws IllegalArgumentException if the id is out of range or the key is invalid.
+     */
+    public void insertOrChangeKey(int id, K key) throws IllegalArgumentException {
+        if (contains(id))
+            changeKey(id, key);
+        else
+            insert(id, key);
+    }
+
+    private void removeAt(int j) {
+        int id = heap[j];
+        int lastIndex = --size;
+        if (j != lastIndex) {
+            place(heap[lastIndex], j);  // last id fills the hole
+            bubble(j);
+        }
+        pos[id] = -1;
+        keys[id] = null;    // help garbage collection
+    }
+
+    private int compare(int i, int j) {
+        return comp.compare(keys[heap[i]], keys[heap[j]]);
+    }
+
+    private void place(int id, int j) {
+        heap[j] = id;
+        pos[id] = j;
+    }
+
+    private void swap(int i, int j) {
+        int temp = heap[i];
+        place(heap[j], i);
+        place(temp, j);
+    }
+
+    private void bubble(int j) {
+        if (j > 0 && compare(j, (j - 1) / 2) < 0)
+            upheap(j);
+        else
+            downheap(j);
+    }
+
+    private void upheap(int j) {
+        while (j > 0) {
+            int p = (j - 1) / 2;
+            if (compare(j, p) >= 0)
+                break;
+            swap(j, p);
+            j = p;
+        }
+    }
+
+    private void downheap(int j) {
+        while (2 * j + 1 < size) {
+            int smallChild = 2 * j + 1;
+            if (smallChild + 1 < size && compare(smallChild + 1, smallChild) < 0)
+                smallChild++;
+            if (compare(smallChild, j) >= 0)
+                break;
+            swap(smallChild, j);
+            j = smallChild;
+        }
+    }
+}
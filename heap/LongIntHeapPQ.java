@@ -0,0 +1,205 @@
+package heap;
+
+import java.util.Arrays;
+
+import priorityqueue.EmptyPriorityQueueException;
+
+/**
+ * A binary min-heap specialized for {@code long} priorities and {@code int} values.
+ *
+ * HeapPQ stores one PQEntry object per element and compares boxed keys through
+ * a Comparator. This class keeps priorities and values in two parallel
+ * primitive arrays instead, so that:
+ * <ul>
+ *   <li>insert and removeMin never allocate (apart from the amortized growth of the arrays);</li>
+ *   <li>comparisons are plain {@code long} comparisons the JIT can inline;</li>
+ *   <li>up-heap and down-heap move a "hole" instead of swapping, writing every slot once.</li>
+ * </ul>
+ *
+ * <p>Since no Entry objects exist, the class does not implement the PriorityQueue
+ * interface: the minimum is read through {@code minPriority()} and {@code minValue()},
+ * and {@code removeMin()} returns the value of the removed element.</p>
+ *
+ * <p>The time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code insert(long priority, int value)} - O(log n) (amortized for array growth)</li>
+ *   <li>{@code removeMin()} - O(log n)</li>
+ *   <li>{@code minPriority()}, {@code minValue()} - O(1)</li>
+ * </ul>
+ * </p>
+ */
+public class LongIntHeapPQ {
+
+    public static final int CAPACITY = 16;  // Default initial capacity
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private long[] priorities;
+    private int[] values;
+    private int size = 0;
+
+    /**
+     * Constructs an empty heap with the default initial capacity.
+     */
+    public LongIntHeapPQ() {
+        this(CAPACITY);
+    }
+
+    /**
+     * Constructs an empty heap able to hold the given number of elements
+     * before growing.
+     *
+     * @param capacity The initial capacity.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public LongIntHeapPQ(int capacity) throws IllegalArgumentException {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        priorities = new long[Math.max(capacity, 1)];
+        values = new int[priorities.length];
+    }
+
+    /**
+     * Constructs a heap from the given priorities and values using bottom-up
+     * construction in O(n). The arrays are copied.
+     *
+     * @param priorities The priorities of the elements.
+     * @param values     The values of the elements.
+     */
+    public LongIntHeapPQ(long[] priorities, int[] values) {
+        int n = Math.min(priorities.length, values.length);
+        this.priorities = Arrays.copyOf(priorities, Math.max(n, 1));
+        this.values = Arrays.copyOf(values, this.priorities.length);
+        size = n;
+        for (int j = (size >>> 1) - 1; j >= 0; j--)
+            downheap(j, this.priorities[j], this.values[j]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element, keeping the allocated arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the minimal priority in the heap.
+     *
+     * @return The priority of the minimum element.
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public long minPriority() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        return priorities[0];
+    }
+
+    /**
+     * Returns the value associated with the minimal priority.
+     *
+     * @return The value of the minimum element.
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public int minValue() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        return values[0];
+    }
+
+    /**
+     * Inserts a new element.
+     *
+     * @param priority The priority of the element.
+     * @param value    The value of the element.
+     */
+    public void insert(long priority, int value) {
+        if (size == priorities.length)
+            grow(size + 1);
+        upheap(size++, priority, value);
+    }
+
+    /**
+     * Removes the element with minimal priority and returns its value.
+     *
+     * @return The value of the removed element.
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public int removeMin() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        int result = values[0];
+        int last = --size;
+        if (last > 0)
+            downheap(0, priorities[last], values[last]);    // last element fills the hole at the root
+        return result;
+    }
+
+    /**
+     * Replaces the minimum element with a new one and restores the heap order.
+     * This is cheaper than removeMin followed by insert since only one
+     * down-heap is performed.
+     *
+     * @param priority The priority of the new element.
+     * @param value    The value of the new element.
+     * @return The value of the replaced minimum element.
+     * @throws EmptyPriorityQueueException if the heap is empty.
+     */
+    public int replaceMin(long priority, int value) throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        int result = values[0];
+        downheap(0, priority, value);
+        return result;
+    }
+
+    // moves the hole at index j up until (priority, value) can be stored there
+    private void upheap(int j, long priority, int value) {
+        while (j > 0) {
+            int p = (j - 1) >>> 1;
+            if (priority >= priorities[p])
+                break;
+            priorities[j] = priorities[p];  // parent slides down into the hole
+            values[j] = values[p];
+            j = p;
+        }
+        priorities[j] = priority;
+        values[j] = value;
+    }
+
+    // moves the hole at index j down until (priority, value) can be stored there
+    private void downheap(int j, long priority, int value) {
+        int half = size >>> 1;  // nodes at index >= half are leaves
+        while (j < half) {
+            int child = 2 * j + 1;
+            int right = child + 1;
+            if (right < size && priorities[right] < priorities[child])
+                child = right;
+            if (priority <= priorities[child])
+                break;
+            priorities[j] = priorities[child];  // smaller child slides up into the hole
+            values[j] = values[child];
+            j = child;
+        }
+        priorities[j] = priority;
+        values[j] = value;
+    }
+
+    // doubles the arrays, clamped to MAX_CAPACITY, so that they can hold minCapacity elements
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY)  // negative: size + 1 overflowed
+            throw new OutOfMemoryError("Required capacity too large");
+        resize((int) Math.min(MAX_CAPACITY, Math.max(minCapacity, 2L * priorities.length)));
+    }
+
+    private void resize(int newCapacity) {
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+    }
+}
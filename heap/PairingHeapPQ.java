@@ -0,0 +1,283 @@
+package heap;
+
+import java.util.Comparator;
+
+import priorityqueue.AbstractPQ;
+import priorityqueue.AdaptablePriorityQueue;
+import priorityqueue.Entry;
+
+/**
+ * An implementation of an adaptable priority queue based on a pairing heap.
+ *
+ * A pairing heap is a heap-ordered multiway tree stored with the
+ * "leftmost child, next sibling" representation. Two trees are combined by
+ * linking them: the root with the larger key becomes the leftmost child of
+ * the other, in O(1). Insertion links a single-node tree with the root, and a
+ * decrease-key cuts the subtree of the entry and links it with the root, so
+ * neither operation ever walks the tree. The work is deferred to removeMin,
+ * which combines the children of the old root with the classic two-pass
+ * pairing: first pairs of adjacent siblings are linked left to right, then
+ * the resulting trees are linked right to left.
+ *
+ * <p>Each entry returned by insert is the tree node itself, so it acts as a
+ * locator for remove, replaceKey and replaceValue just like the entries of
+ * HeapAdaptablePQ.</p>
+ *
+ * <p>The amortized time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code insert(K key, V value)} - O(1)</li>
+ *   <li>{@code min()} - O(1)</li>
+ *   <li>{@code replaceKey(Entry e, K key)} - O(1) in practice when the key decreases
+ *       (the proven bound is o(log n)), O(log n) when it increases</li>
+ *   <li>{@code removeMin()}, {@code remove(Entry e)} - O(log n)</li>
+ * </ul>
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class PairingHeapPQ<K,V> extends AbstractPQ<K,V> implements AdaptablePriorityQueue<K,V> {
+
+    /**
+     * Nested class representing a node of the pairing heap.
+     *
+     * {@code prev} refers to the previous sibling or, for a leftmost child,
+     * to the parent; it is null for the root. {@code owner} identifies the
+     * queue the node belongs to and is cleared when the node is removed.
+     *
+     * @param <K> The type of the key.
+     * @param <V> The type of the value.
+     */
+    protected static class Node<K,V> extends PQEntry<K,V> {
+        private Node<K,V> child;
+        private Node<K,V> sibling;
+        private Node<K,V> prev;
+        private PairingHeapPQ<K,V> owner;
+
+        public Node(K key, V value, PairingHeapPQ<K,V> owner) {
+            super(key, value);
+            this.owner = owner;
+        }
+
+        @Override
+        protected void setKey(K key) {
+            super.setKey(key);
+        }
+    }
+
+    private Node<K,V> root = null;
+    private int size = 0;
+
+    /**
+     * Constructs an empty pairing heap using the natural ordering of the keys.
+     */
+    public PairingHeapPQ() {
+        super();
+    }
+
+    /**
+     * Constructs an empty pairing heap using the specified comparator.
+     *
+     * @param comp The comparator defining the order of keys.
+     */
+    public PairingHeapPQ(Comparator<K> comp) {
+        super(comp);
+    }
+
+    /**
+     * Validates a given entry, ensuring it is a node currently stored in this queue.
+     *
+     * @param entry The entry to validate.
+     * @return The validated node.
+     * @throws IllegalArgumentException if the entry is invalid or not associated with this queue.
+     */
+    protected Node<K,V> validate(Entry<K,V> entry) throws IllegalArgumentException {
+        if(!(entry instanceof Node))
+            throw new IllegalArgumentException("Invalid entry");
+        Node<K,V> node = (Node<K,V>) entry;
+        if(node.owner != this)
+            throw new IllegalArgumentException("Invalid entry");
+        return node;
+    }
+
+    /**
+     * Links two detached trees and returns the root of the result: the root
+     * with the larger key becomes the leftmost child of the other one.
+     */
+    private Node<K,V> link(Node<K,V> a, Node<K,V> b) {
+        if(compare(b, a) < 0) {
+            Node<K,V> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.sibling = a.child;
+        if(a.child != null)
+            a.child.prev = b;
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Detaches the subtree rooted at a non-root node from its parent and siblings.
+     */
+    private void cut(Node<K,V> node) {
+        if(node.prev.child == node)     // node is a leftmost child
+            node.prev.child = node.sibling;
+        else
+            node.prev.sibling = node.sibling;
+        if(node.sibling != null)
+            node.sibling.prev = node.prev;
+        node.prev = null;
+        node.sibling = null;
+    }
+
+    /**
+     * Combines a list of sibling trees into a single tree with the two-pass
+     * pairing strategy. Both passes are iterative, so long sibling lists
+     * (e.g. after many insertions) cannot overflow the stack.
+     */
+    private Node<K,V> mergePairs(Node<K,V> first) {
+        if(first == null)
+            return null;
+        // first pass: link pairs left to right, pushing the results on a stack
+        Node<K,V> stack = null;
+        while(first != null) {
+            Node<K,V> a = first;
+            Node<K,V> b = a.sibling;
+            Node<K,V> merged;
+            if(b == null) {
+                first = null;
+                a.prev = null;
+                merged = a;
+            }
+            else {
+                first = b.sibling;
+                a.prev = a.sibling = null;
+                b.prev = b.sibling = null;
+                merged = link(a, b);
+            }
+            merged.sibling = stack;
+            stack = merged;
+        }
+        // second pass: link the stacked trees right to left
+        Node<K,V> result = stack;
+        stack = stack.sibling;
+        result.sibling = null;
+        while(stack != null) {
+            Node<K,V> next = stack.sibling;
+            stack.sibling = null;
+            result = link(result, stack);
+            stack = next;
+        }
+        return result;
+    }
+
+    /**
+     * Adds a detached node to the heap.
+     */
+    private void addNode(Node<K,V> node) {
+        root = (root == null) ? node : link(root, node);
+        size++;
+    }
+
+    /**
+     * Detaches a node from the heap, merging its children back in.
+     */
+    private void removeNode(Node<K,V> node) {
+        if(node == root)
+            root = mergePairs(node.child);
+        else {
+            cut(node);
+            Node<K,V> children = mergePairs(node.child);
+            if(children != null)
+                root = link(root, children);
+        }
+        node.child = null;
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entry<K,V> min() {
+        return root;
+    }
+
+    /**
+     * Inserts a new entry into the priority queue.
+     *
+     * @param key   The key associated with the entry.
+     * @param value The value associated with the entry.
+     * @return The newly created entry.
+     * @throws IllegalArgumentException if the key is invalid.
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K,V> newest = new Node<>(key, value, this);
+        addNode(newest);
+        return newest;
+    }
+
+    public Entry<K,V> removeMin() {
+        if(root == null)
+            return null;
+        Node<K,V> oldRoot = root;
+        removeNode(oldRoot);
+        oldRoot.owner = null;
+        return oldRoot;
+    }
+
+    /**
+     * Removes a given entry from the priority queue.
+     *
+     * @param entry The entry to remove.
+     * @throws IllegalArgumentException if the entry is invalid.
+     */
+    public void remove(Entry<K,V> entry) throws IllegalArgumentException {
+        Node<K,V> node = validate(entry);
+        removeNode(node);
+        node.owner = null;
+    }
+
+    /**
+     * Replaces the key associated with a given entry.
+     *
+     * A smaller key is handled by cutting the subtree of the entry and linking
+     * it with the root; a larger key detaches the entry alone and reinserts it.
+     * In both cases the entry remains a valid locator.
+     *
+     * @param entry The entry to update.
+     * @param key   The new key.
+     * @throws IllegalArgumentException if the entry or the key is invalid.
+     */
+    public void replaceKey(Entry<K,V> entry, K key) throws IllegalArgumentException {
+        Node<K,V> node = validate(entry);
+        checkKey(key);
+        if(compareKeys(key, node.getKey()) <= 0) {
+            node.setKey(key);
+            if(node != root) {
+                cut(node);
+                root = link(root, node);
+            }
+        }
+        else {
+            removeNode(node);
+            node.setKey(key);
+            addNode(node);
+        }
+    }
+
+    /**
+     * Replaces the value associated with a given entry.
+     *
+     * @param entry The entry to update.
+     * @param value The new value.
+     * @throws IllegalArgumentException if the entry is invalid.
+     */
+    public void replaceValue(Entry<K,V> entry, V value) throws IllegalArgumentException {
+        Node<K,V> node = validate(entry);
+        node.setValue(value);
+    }
+}
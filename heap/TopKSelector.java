@@ -0,0 +1,141 @@
+package heap;
+
+import java.util.Comparator;
+
+import lists.ArrayList;
+import priorityqueue.DefaultComparator;
+import priorityqueue.Entry;
+
+/**
+ * A bounded collector of the k entries with the largest keys seen in a stream.
+ *
+ * The selector keeps a min-heap (HeapPQ) of at most k entries, so its root is
+ * the smallest key currently retained, i.e. the threshold an incoming entry
+ * must beat. Once the heap is full:
+ * <ul>
+ *   <li>an entry whose key does not exceed the threshold is rejected after a
+ *       single comparison, without allocating anything;</li>
+ *   <li>a better entry replaces the root in place with HeapPQ.replaceMin,
+ *       costing one down-heap.</li>
+ * </ul>
+ * Memory is O(k) regardless of the length of the stream, and processing n
+ * entries costs O(n log k) in the worst case (O(n) when most entries are rejected).
+ *
+ * <p>Partial results computed by parallel workers on disjoint parts of the
+ * stream can be combined with {@code merge}, which offers the k entries of the
+ * other selector to this one.</p>
+ *
+ * @param <K> The type of the keys (the scores).
+ * @param <V> The type of the values.
+ */
+public class TopKSelector<K,V> {
+
+    private final int k;
+    private final Comparator<K> comp;
+    private final HeapPQ<K,V> heap;
+
+    /**
+     * Constructs a selector for the k largest keys according to their natural ordering.
+     *
+     * @param k The number of entries to retain, at least 1.
+     * @throws IllegalArgumentException if k is less than 1.
+     */
+    public TopKSelector(int k) throws IllegalArgumentException {
+        this(k, new DefaultComparator<K>());
+    }
+
+    /**
+     * Constructs a selector for the k largest keys according to the specified comparator.
+     *
+     * @param k    The number of entries to retain, at least 1.
+     * @param comp The comparator defining the order of keys.
+     * @throws IllegalArgumentException if k is less than 1.
+     */
+    public TopKSelector(int k, Comparator<K> comp) throws IllegalArgumentException {
+        if (k < 1)
+            throw new IllegalArgumentException("k must be at least 1");
+        this.k = k;
+        this.comp = comp;
+        heap = new HeapPQ<>(comp);
+    }
+
+    /**
+     * Returns the maximum number of entries retained.
+     *
+     * @return k.
+     */
+    public int capacity() {
+        return k;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Returns the retained entry with the smallest key, i.e. the key an
+     * incoming entry must exceed once the selector is full.
+     *
+     * @return The entry with the smallest retained key, or null if empty.
+     */
+    public Entry<K,V> threshold() {
+        return heap.min();
+    }
+
+    /**
+     * Offers an entry to the selector.
+     *
+     * @param key   The key (score) of the entry.
+     * @param value The value of the entry.
+     * @return true if the entry is retained, false if it was rejected.
+     * @throws IllegalArgumentException if the key is invalid.
+     */
+    public boolean offer(K key, V value) throws IllegalArgumentException {
+        if (heap.size() < k) {
+            heap.insert(key, value);
+            return true;
+        }
+        if (comp.compare(key, heap.min().getKey()) <= 0)
+            return false;   // not better than the worst retained entry
+        heap.replaceMin(key, value);
+        return true;
+    }
+
+    /**
+     * Merges the entries retained by another selector into this one, so that
+     * this selector holds the top k of the union of both streams. The other
+     * selector is left unchanged.
+     *
+     * @param other The selector to merge.
+     * @throws IllegalArgumentException if other is this selector.
+     */
+    public void merge(TopKSelector<K,V> other) throws IllegalArgumentException {
+        if (other == this)
+            throw new IllegalArgumentException("Can't merge a selector with itself");
+        ArrayList<Entry<K,V>> entries = other.heap.heap;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry<K,V> e = entries.get(i);
+            offer(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Removes all the retained entries and returns them ordered from the
+     * largest key to the smallest.
+     *
+     * @return The retained entries, best first.
+     */
+    public ArrayList<Entry<K,V>> drainSorted() {
+        int n = heap.size();
+        ArrayList<Entry<K,V>> result = new ArrayList<>(Math.max(n, 1));
+        for (int i = 0; i < n; i++)
+            result.add(null);
+        for (int i = n - 1; i >= 0; i--)
+            result.set(i, heap.removeMin());    // removeMin yields the smallest first
+        return result;
+    }
+}
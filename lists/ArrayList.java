@@ -3,20 +3,35 @@ package lists;
 /*  This ArrayList implementation dynamically adjusts its internal array size to efficiently manage memory. 
     When elements are added, the array doubles its capacity if full, ensuring that insertion (both add(Object o) 
     and add(int index, Object element)) remains O(1) amortized. When elements are removed, if the list's size 
-    falls below one-quarter of its capacity, the array halves in size to free up memory, making removal O(n) 
+    falls to one-quarter of its capacity, the array halves in size to free up memory, making removal O(n) 
     due to element shifting. The get(int index) and set(int index, Object element) operations are O(1) since 
     they access the array directly. Similarly, size() and isEmpty() are O(1) as they simply return stored values. 
     The implementation balances between time efficiency for frequent operations and memory efficiency during 
-    dynamic resizing. */
-
+    dynamic resizing. 
+    Shifts are done with System.arraycopy. The shrink policy has hysteresis: after halving, the array is half 
+    full, so the next grow needs size more adds and the next shrink size/2 more removes, and an add/remove 
+    sequence around a threshold cannot reallocate repeatedly. The array never shrinks below its initial 
+    capacity or the capacity reserved with ensureCapacity; trimToSize releases all the unused space explicitly. 
+    removeAll, retainAll and removeIf compact the array in a single pass, O(n) calls to the test instead of 
+    one O(n) shift per removed element. 
+    Iterators are fail-fast cursors: a structural change not made through the iterator is detected by a 
+    modification counter, and forEachRemaining runs the whole remaining loop over the array. */
+
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class ArrayList<E> implements List<E> {
 
     public static final int CAPACITY = 30; // Default initial capacity
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
     private E[] data;
     private int size = 0;
+    private int minCapacity;    // the array is never shrunk below this capacity
+    private int modCount = 0;   // structural modifications, checked by the subList views
 
     public ArrayList() {
         this(CAPACITY);
@@ -25,6 +40,7 @@ public class ArrayList<E> implements List<E> {
     @SuppressWarnings("unchecked")
     public ArrayList(int capacity) {
         data = (E[]) new Object[capacity];
+        minCapacity = capacity;
     }
 
     protected void checkIndex(int i, int n) throws ArrayIndexOutOfBoundsException {
@@ -36,9 +52,10 @@ public class ArrayList<E> implements List<E> {
     @Override
     public boolean add(Object o) {
         if (size == data.length) {
-            resize(2 * data.length); // Double the size if the array is full
+            grow(size + 1); // Double the size if the array is full
         }
         data[size++] = (E) o;
+        modCount++;
         return true;
     }
 
@@ -47,11 +64,11 @@ public class ArrayList<E> implements List<E> {
     public void add(int index, Object element) throws ArrayIndexOutOfBoundsException, IllegalStateException {
         checkIndex(index, size + 1);
         if (size == data.length)
-            resize(2 * data.length);
-        for (int k = size - 1; k >= index; k--)
-            data[k + 1] = data[k];
+            grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
         data[index] = (E) element;
         size++;
+        modCount++;
     }
 
     @Override
@@ -59,37 +76,34 @@ public class ArrayList<E> implements List<E> {
         Object[] elements = c.toArray();
         int newSize = size + elements.length;
         if (newSize > data.length) {
-            resize(Math.max(newSize, 2 * data.length));
+            grow(newSize);
         }
         System.arraycopy(elements, 0, data, size, elements.length);
         size = newSize;
+        modCount++;
         return elements.length > 0;
     }
 
     @Override
     public boolean addAll(int index, Collection<E> c) throws ArrayIndexOutOfBoundsException {
         checkIndex(index, size + 1); // Check if index is within valid range
-        int collectionSize = c.size(); // Get the size of the collection to be added
+        Object[] elements = c.toArray(); // A snapshot, also safe when c is this list
+        int collectionSize = elements.length; // Get the size of the collection to be added
         if (collectionSize == 0) return false; // If collection is empty, return false
 
         // Ensure there is enough space, resize if necessary
-        while (size + collectionSize > data.length) {
-            resize(2 * data.length);
+        if (size + collectionSize > data.length) {
+            grow(size + collectionSize);
         }
 
         // Shift elements to the right to make space for the new elements
-        for (int i = size - 1; i >= index; i--) {
-            data[i + collectionSize] = data[i];
-        }
+        System.arraycopy(data, index, data, index + collectionSize, size - index);
 
-        // Copy elements from the collection to the array using an iterator
-        Iterator<E> iterator = c.iterator();
-        int i = index;
-        while (iterator.hasNext()) {
-            data[i++] = iterator.next();
-        }
+        // Copy elements from the collection to the array
+        System.arraycopy(elements, 0, data, index, collectionSize);
 
         size += collectionSize; // Update the size of the ArrayList
+        modCount++;
         return true;
     }
 
@@ -114,7 +128,9 @@ public class ArrayList<E> implements List<E> {
             data[i] = null;
         }
         size = 0;
-        resize(CAPACITY); // Reset to initial capacity if necessary
+        modCount++;
+        if (data.length > minCapacity)
+            resize(minCapacity); // Reset to initial capacity if necessary
     }
 
     @Override
@@ -165,15 +181,11 @@ public class ArrayList<E> implements List<E> {
     public E remove(int index) throws ArrayIndexOutOfBoundsException {
         checkIndex(index, size);
         E removedElement = data[index];
-        for (int k = index; k < size - 1; k++) {
-            data[k] = data[k + 1];
-        }
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
         data[--size] = null;
+        modCount++;
         
-        // Shrink the array if the size falls below 1/4 of the capacity
-        if (size > 0 && size <= data.length / 4) {
-            resize(data.length / 2);
-        }
+        shrinkIfSparse();
         
         return removedElement;
     }
@@ -190,26 +202,67 @@ public class ArrayList<E> implements List<E> {
 
     @Override
     public boolean removeAll(Collection<E> c) {
-        boolean modified = false;
-        for (E o : c.toArray()) {
-            while (remove(o)) {
-                modified = true;
-            }
-        }
-        return modified;
+        return removeIf(e -> c.contains(e));
     }
 
     @Override
     public boolean retainAll(Collection<E> c) throws ArrayIndexOutOfBoundsException {
-        boolean modified = false;
-        for (int i = 0; i < size; i++) {
-            if (!c.contains(data[i])) {
-                remove(i);
-                i--; // Adjust for the shift in elements
-                modified = true;
-            }
+        return removeIf(e -> !c.contains(e));
+    }
+
+    /**
+     * Removes every element matching the filter. The kept elements are
+     * compacted towards the front in a single pass, so the filter is called
+     * once per element and every kept element moves at most once: O(n).
+     *
+     * @param filter the condition for removal
+     * @return true if any element was removed
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        return removeIf(0, size, filter) > 0;
+    }
+
+    // compacts the kept elements of [from, to) towards from and closes the gap with one shift of the tail;
+    // returns the number of elements removed
+    private int removeIf(int from, int to, Predicate<? super E> filter) {
+        int kept = from;
+        for (int i = from; i < to; i++) {
+            E element = data[i];
+            if (!filter.test(element))
+                data[kept++] = element;
         }
-        return modified;
+        int removed = to - kept;
+        if (removed == 0)
+            return 0;
+        System.arraycopy(data, to, data, kept, size - to);
+        for (int i = size - removed; i < size; i++)
+            data[i] = null; // help garbage collection
+        size -= removed;
+        modCount++;
+        shrinkIfSparse();
+        return removed;
+    }
+
+    /**
+     * Grows the array, if necessary, to hold at least minCapacity elements,
+     * and keeps it from shrinking below that capacity on removals.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length)
+            grow(minCapacity);
+        this.minCapacity = Math.max(this.minCapacity, minCapacity);
+    }
+
+    /**
+     * Shrinks the array to the size of the list, releasing all the unused
+     * capacity, including the capacity reserved by ensureCapacity.
+     */
+    public void trimToSize() {
+        minCapacity = size;
+        if (size < data.length)
+            resize(size);
     }
 
     @SuppressWarnings("unchecked")
@@ -232,15 +285,28 @@ public class ArrayList<E> implements List<E> {
         return a;
     }
 
+    /**
+     * Returns a view of the elements in [fromIndex, toIndex), backed by this
+     * list: nothing is copied, reads and writes go to the same array, and
+     * structural changes made through the view (add, remove, clear) are
+     * applied to this list. A structural change made to this list, or to
+     * another view, invalidates the view: its next use throws
+     * ConcurrentModificationException.
+     *
+     * @param fromIndex the first index of the view, inclusive
+     * @param toIndex   the last index of the view, exclusive
+     * @return the view
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
     @Override
     public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
-        checkIndex(fromIndex, size);
-        checkIndex(toIndex, size + 1);
-        ArrayList<E> subList = new ArrayList<E>(toIndex - fromIndex);
-        for (int i = fromIndex; i < toIndex; i++) {
-            subList.add(data[i]);
-        }
-        return subList;
+        checkRange(fromIndex, toIndex, size);
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    private static void checkRange(int fromIndex, int toIndex, int n) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > n || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), size was " + n);
     }
 
     @Override
@@ -254,10 +320,27 @@ public class ArrayList<E> implements List<E> {
     }
 
     @Override
-    public Iterable<E> listIterator(int index) {
+    public Iterable<E> listIterator(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size + 1);
         return new ArrayListIterator(index);
     }
 
+    // doubles the capacity, or more if minCapacity requires it
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) // negative: the required size overflowed
+            throw new OutOfMemoryError("Required capacity too large");
+        resize((int) Math.min(MAX_CAPACITY, Math.max(minCapacity, 2L * data.length)));
+    }
+
+    // halves the capacity while the list is at most a quarter full, never below minCapacity
+    private void shrinkIfSparse() {
+        int capacity = data.length;
+        while (size <= capacity / 4 && capacity / 2 >= minCapacity && capacity > 0)
+            capacity /= 2;
+        if (capacity < data.length)
+            resize(capacity);
+    }
+
     @SuppressWarnings("unchecked")
     private void resize(int newCapacity) {
         E[] newData = (E[]) new Object[newCapacity];
@@ -265,72 +348,417 @@ public class ArrayList<E> implements List<E> {
         data = (E[]) newData;
     }
 
+    /**
+     * A cursor over the array. It is fail-fast: a structural change not made
+     * through the iterator makes its next use throw
+     * ConcurrentModificationException, detected by comparing modCount with
+     * the value the iterator expects, one int comparison per call.
+     */
     private class ArrayListIterator implements ListIterator<E>, Iterator<E> {
-        private int currentIndex = 0;
-        private boolean removable = false;
+        private int cursor;
+        private int lastReturned = -1;  // index of the element returned last, -1 if none or removed
+        private int expectedModCount = modCount;
 
         public ArrayListIterator(int index) {
-            currentIndex = index;
+            cursor = index;
+        }
+
+        public ArrayListIterator() {
+            this(0);
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
         }
 
-        public ArrayListIterator() {}
         @Override
         public boolean hasNext() {
-            return currentIndex < size;
+            return cursor < size;
         }
 
         @Override
         public E next() throws NoSuchElementException {
-            if (!hasNext()) {
+            checkModCount();
+            int i = cursor;
+            if (i >= size) {
                 throw new NoSuchElementException();
             }
-            removable = true;
-            return data[currentIndex++];
+            cursor = i + 1;
+            return data[lastReturned = i];
         }
 
         @Override
         public boolean hasPrevious() {
-            return currentIndex > 0;
+            return cursor > 0;
         }
 
         @Override
-        public E previous() {
-            if (!hasPrevious()) {
+        public E previous() throws NoSuchElementException {
+            checkModCount();
+            int i = cursor - 1;
+            if (i < 0) {
                 throw new NoSuchElementException();
             }
-            return data[--currentIndex];
+            cursor = i;
+            return data[lastReturned = i];
         }
 
         @Override
         public int nextIndex() {
-            return currentIndex;
+            return cursor;
         }
 
         @Override
         public int previousIndex() {
-            return currentIndex - 1;
+            return cursor - 1;
         }
 
         @Override
         public void remove() throws IllegalStateException {
-            if(!removable)
+            if (lastReturned < 0)
                 throw new IllegalStateException("No item to remove");
-            ArrayList.this.remove(--currentIndex);
+            checkModCount();
+            ArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
         }
 
         @Override
         public void set(E e) {
-            ArrayList.this.set(currentIndex - 1, e);
+            if (lastReturned < 0)
+                throw new IllegalStateException("No item to set");
+            checkModCount();
+            data[lastReturned] = e;
         }
 
         @Override
-        public void add(Object e) {
-            ArrayList.this.add(currentIndex++, e);
+        public void add(E e) {
+            checkModCount();
+            ArrayList.this.add(cursor++, e);
+            lastReturned = -1;
+            expectedModCount = modCount;
         }
+
+        /**
+         * Performs the action on each remaining element in a single loop over
+         * the array, with no calls to next() or hasNext(): the only per-element
+         * overhead is one int comparison of modCount, which keeps it fail-fast.
+         *
+         * @param action the action to perform
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            E[] elements = data;
+            int n = size;
+            int i = cursor;
+            for (; i < n && modCount == expectedModCount; i++)
+                action.accept(elements[i]);
+            if (i > cursor)
+                lastReturned = i - 1;
+            cursor = i;
+            checkModCount();
+        }
+
         @Override
         public Iterator<E> iterator() {
             return new ArrayListIterator();
         }
     }
 
+    /**
+     * A view of a range of the list: an offset and a size over the array of
+     * the list. Structural changes go through the list and then update the
+     * sizes of this view and of the views it was taken from.
+     */
+    private class SubList implements List<E> {
+        private final SubList parent;   // the view this one was taken from, null if taken from the list
+        private final int offset;       // index in the list of the first element of the view
+        private int size;
+        private int expectedModCount;
+
+        SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        // after a structural change made through this view, fixes the sizes of the chain of views
+        private void updateSize(int delta) {
+            for (SubList view = this; view != null; view = view.parent) {
+                view.size += delta;
+                view.expectedModCount = modCount;
+            }
+        }
+
+        @Override
+        public int size() {
+            checkModCount();
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public E get(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            return data[offset + index];
+        }
+
+        @Override
+        public E set(int index, E element) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            E oldElement = data[offset + index];
+            data[offset + index] = element;
+            return oldElement;
+        }
+
+        @Override
+        public boolean add(E o) {
+            add(size, o);
+            return true;
+        }
+
+        @Override
+        public void add(int index, E element) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size + 1);
+            ArrayList.this.add(offset + index, element);
+            updateSize(1);
+        }
+
+        @Override
+        public boolean addAll(Collection<E> c) {
+            return addAll(size, c);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<E> c) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size + 1);
+            int before = ArrayList.this.size;
+            boolean modified = ArrayList.this.addAll(offset + index, c);
+            if (modified)
+                updateSize(ArrayList.this.size - before);
+            return modified;
+        }
+
+        @Override
+        public E remove(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            E removedElement = ArrayList.this.remove(offset + index);
+            updateSize(-1);
+            return removedElement;
+        }
+
+        @Override
+        public boolean remove(E o) {
+            int index = indexOf(o);
+            if (index < 0)
+                return false;
+            remove(index);
+            return true;
+        }
+
+        @Override
+        public boolean removeAll(Collection<E> c) {
+            return removeIf(e -> c.contains(e));
+        }
+
+        @Override
+        public boolean retainAll(Collection<E> c) {
+            return removeIf(e -> !c.contains(e));
+        }
+
+        /**
+         * Removes every element of the view matching the filter, in a single
+         * compacting pass over the range.
+         *
+         * @param filter the condition for removal
+         * @return true if any element was removed
+         */
+        public boolean removeIf(Predicate<? super E> filter) {
+            checkModCount();
+            int removed = ArrayList.this.removeIf(offset, offset + size, filter);
+            if (removed == 0)
+                return false;
+            updateSize(-removed);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            removeIf(e -> true);
+        }
+
+        @Override
+        public int indexOf(E o) {
+            checkModCount();
+            for (int i = 0; i < size; i++) {
+                if (data[offset + i].equals(o)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(E o) {
+            checkModCount();
+            for (int i = size - 1; i >= 0; i--) {
+                if (data[offset + i].equals(o)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean contains(E o) {
+            return indexOf(o) >= 0;
+        }
+
+        @Override
+        public boolean containsAll(Collection<E> c) {
+            for (E o : c.toArray()) {
+                if (!contains(o)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E[] toArray() {
+            checkModCount();
+            E[] arrayCopy = (E[]) new Object[size];
+            System.arraycopy(data, offset, arrayCopy, 0, size);
+            return arrayCopy;
+        }
+
+        @Override
+        public E[] toArray(E[] a) {
+            checkModCount();
+            if (a.length < size) {
+                return toArray();
+            }
+            System.arraycopy(data, offset, a, 0, size);
+            if (a.length > size) {
+                a[size] = null;
+            }
+            return a;
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkRange(fromIndex, toIndex, size);
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator(int index) {
+            checkIndex(index, size + 1);
+            return new SubListIterator(index);
+        }
+
+        private class SubListIterator implements ListIterator<E>, Iterator<E> {
+            private int currentIndex;
+            private int lastReturned = -1;
+
+            SubListIterator(int index) {
+                currentIndex = index;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size;
+            }
+
+            @Override
+            public E next() throws NoSuchElementException {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = currentIndex;
+                return get(currentIndex++);
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return currentIndex > 0;
+            }
+
+            @Override
+            public E previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = --currentIndex;
+                return get(currentIndex);
+            }
+
+            @Override
+            public int nextIndex() {
+                return currentIndex;
+            }
+
+            @Override
+            public int previousIndex() {
+                return currentIndex - 1;
+            }
+
+            @Override
+            public void remove() throws IllegalStateException {
+                if (lastReturned < 0)
+                    throw new IllegalStateException("No item to remove");
+                SubList.this.remove(lastReturned);
+                currentIndex = lastReturned;
+                lastReturned = -1;
+            }
+
+            @Override
+            public void set(E e) {
+                if (lastReturned < 0)
+                    throw new IllegalStateException("No item to set");
+                SubList.this.set(lastReturned, e);
+            }
+
+            @Override
+            public void add(E e) {
+                SubList.this.add(currentIndex++, e);
+                lastReturned = -1;
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new SubListIterator(0);
+            }
+        }
+    }
 }
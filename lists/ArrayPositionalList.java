@@ -0,0 +1,307 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An array-based implementation of the {@link PositionalList} interface.
+ * <p>
+ * The elements and their links live in parallel arrays indexed by slot: a slot holds an element,
+ * the slot of its predecessor and the slot of its successor. Slot 0 is the sentinel, its successor
+ * is the first element and its predecessor the last, so the list is circular through it. The slots
+ * of removed elements are kept in a free list, linked through the successor array, and reused by
+ * the next insertions; the arrays double when no slot is free. Every operation is O(1) (amortized
+ * for insertions), an element costs a reference and three ints instead of a node object, and the
+ * links of neighbouring slots share cache lines.
+ * <p>
+ * A position is a small immutable handle holding a slot and its generation, a counter the slot
+ * increments every time its element is removed: a position kept after its removal stays invalid
+ * even when its slot is reused, because the generations differ. Handles of the same element are
+ * equal, so they can be used as keys.
+ * <p>
+ * The iterator walks the slots directly and is fail-fast: a structural change not made through
+ * the iterator is detected by a modification counter.
+ *
+ * @param <E> the type of elements stored in the list
+ */
+public class ArrayPositionalList<E> implements PositionalList<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int SENTINEL = 0;
+    private static final int NONE = -1;     // end of the free list, and prev of a free slot
+
+    private Object[] elements;
+    private int[] prev;
+    private int[] next;
+    private int[] generation;   // incremented on every removal, checked by the handles
+    private int free = NONE;    // first slot of the free list, linked through next
+    private int used = 1;       // slots ever handed out, the sentinel included
+    private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the iterators
+
+    /**
+     * The position of an element: its slot and the generation the slot had
+     * when the element was inserted.
+     */
+    private final class Handle implements Position<E> {
+        private final int slot;
+        private final int gen;
+
+        Handle(int slot) {
+            this.slot = slot;
+            this.gen = generation[slot];
+        }
+
+        boolean isValid() {
+            return generation[slot] == gen;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E getElement() throws IllegalStateException {
+            if (!isValid())
+                throw new IllegalStateException("Position no longer valid");
+            return (E) elements[slot];
+        }
+
+        private ArrayPositionalList<E> owner() {
+            return ArrayPositionalList.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ArrayPositionalList.Handle))
+                return false;
+            ArrayPositionalList<?>.Handle other = (ArrayPositionalList<?>.Handle) o;
+            return owner() == other.owner() && slot == other.slot && gen == other.gen;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * slot + gen;
+        }
+    }
+
+    public ArrayPositionalList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with room for the given number of elements
+     * before its arrays grow.
+     *
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ArrayPositionalList(int capacity) throws IllegalArgumentException {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        elements = new Object[capacity + 1];
+        prev = new int[capacity + 1];
+        next = new int[capacity + 1];
+        generation = new int[capacity + 1];
+        prev[SENTINEL] = SENTINEL;
+        next[SENTINEL] = SENTINEL;
+    }
+
+    /**
+     * Validates the given position to ensure it is a live handle of this list.
+     *
+     * @param p the position to validate
+     * @return the slot of the position
+     * @throws IllegalArgumentException if the position is invalid or no longer valid
+     */
+    private int validate(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof ArrayPositionalList.Handle))
+            throw new IllegalArgumentException("Invalid position");
+        Handle handle = (Handle) p;
+        if (handle.owner() != this)
+            throw new IllegalArgumentException("Position does not belong to this list");
+        if (!handle.isValid())
+            throw new IllegalArgumentException("Position no longer valid");
+        return handle.slot;
+    }
+
+    // the slot as a position, or null for the sentinel
+    private Position<E> position(int slot) {
+        return slot == SENTINEL ? null : new Handle(slot);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Position<E> first() {
+        return position(next[SENTINEL]);
+    }
+
+    public Position<E> last() {
+        return position(prev[SENTINEL]);
+    }
+
+    public Position<E> before(Position<E> p) throws IllegalArgumentException {
+        return position(prev[validate(p)]);
+    }
+
+    public Position<E> after(Position<E> p) throws IllegalArgumentException {
+        return position(next[validate(p)]);
+    }
+
+    // a free slot, growing the arrays if none is left
+    private int allocate() {
+        int slot = free;
+        if (slot != NONE) {
+            free = next[slot];
+            return slot;
+        }
+        if (used == elements.length) {
+            int capacity = Math.max(2 * elements.length, DEFAULT_CAPACITY + 1);
+            elements = Arrays.copyOf(elements, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+            generation = Arrays.copyOf(generation, capacity);
+        }
+        return used++;
+    }
+
+    private Position<E> addBetween(E e, int predec, int succes) {
+        int slot = allocate();
+        elements[slot] = e;
+        prev[slot] = predec;
+        next[slot] = succes;
+        next[predec] = slot;
+        prev[succes] = slot;
+        size++;
+        modCount++;
+        return new Handle(slot);
+    }
+
+    public Position<E> addFirst(E e) {
+        return addBetween(e, SENTINEL, next[SENTINEL]);
+    }
+
+    public Position<E> addLast(E e) {
+        return addBetween(e, prev[SENTINEL], SENTINEL);
+    }
+
+    public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+        int slot = validate(p);
+        return addBetween(e, prev[slot], slot);
+    }
+
+    public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+        int slot = validate(p);
+        return addBetween(e, slot, next[slot]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public E set(Position<E> p, E e) throws IllegalArgumentException {
+        int slot = validate(p);
+        E oldItem = (E) elements[slot];
+        elements[slot] = e;
+        return oldItem;
+    }
+
+    public E remove(Position<E> p) throws IllegalArgumentException {
+        return remove(validate(p));
+    }
+
+    // unlinks a live slot and puts it on the free list
+    @SuppressWarnings("unchecked")
+    private E remove(int slot) {
+        next[prev[slot]] = next[slot];
+        prev[next[slot]] = prev[slot];
+        size--;
+        modCount++;
+        E oldItem = (E) elements[slot];
+        elements[slot] = null;      // help garbage collection
+        generation[slot]++;         // invalidates the handles of the removed element
+        prev[slot] = NONE;
+        next[slot] = free;
+        free = slot;
+        return oldItem;
+    }
+
+    public E removeFirst() throws NoSuchElementException {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(next[SENTINEL]);
+    }
+
+    public E removeLast() throws NoSuchElementException {
+        if (isEmpty()) throw new NoSuchElementException();
+        return remove(prev[SENTINEL]);
+    }
+
+    public Iterable<Position<E>> positions() {
+        return new PositionIterable();
+    }
+
+    /**
+     * A fail-fast cursor over the slots, from the first to the last.
+     */
+    private class PositionIterator implements Iterator<Position<E>> {
+        private int cursor = next[SENTINEL];    // slot of the next position
+        private int recent = NONE;              // slot returned last, NONE if none or removed
+        private int expectedModCount = modCount;
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean hasNext() {
+            return cursor != SENTINEL;
+        }
+
+        public Position<E> next() throws NoSuchElementException {
+            checkModCount();
+            if (cursor == SENTINEL) throw new NoSuchElementException("No more elements");
+            recent = cursor;
+            cursor = next[cursor];
+            return new Handle(recent);
+        }
+
+        public void remove() throws IllegalStateException {
+            if (recent == NONE) throw new IllegalStateException("Nothing to remove");
+            checkModCount();
+            ArrayPositionalList.this.remove(recent);
+            recent = NONE;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Performs the action on each remaining position in a single loop over
+         * the slots, checking for modifications once per position.
+         *
+         * @param action the action to perform
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super Position<E>> action) {
+            Objects.requireNonNull(action);
+            while (cursor != SENTINEL && modCount == expectedModCount) {
+                recent = cursor;
+                cursor = next[cursor];
+                action.accept(new Handle(recent));
+            }
+            checkModCount();
+        }
+    }
+
+    private class PositionIterable implements Iterable<Position<E>> {
+        public Iterator<Position<E>> iterator() {
+            return new PositionIterator();
+        }
+    }
+
+    @Override
+    public Iterator<Position<E>> iterator() {
+        return new PositionIterator();
+    }
+}
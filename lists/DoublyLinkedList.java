@@ -1,8 +1,12 @@
 package lists;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
-public class DoublyLinkedList<E> {
+public class DoublyLinkedList<E> implements Iterable<E> {
 
     private static class Node<E> {
         private E element;
@@ -34,6 +38,7 @@ public class DoublyLinkedList<E> {
     private Node<E> header;
     private Node<E> trailer;
     private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the iterators
 
     public DoublyLinkedList() {
         header = new Node<E>(null, null, null); // can't put trailer as a follower here ...
@@ -85,6 +90,8 @@ public class DoublyLinkedList<E> {
         Node<E> newest = new Node<>(e, predecessor, successor);
         predecessor.setNext(newest);
         successor.setPrev(newest);
+        size++;
+        modCount++;
     }
 
     private E remove(Node<E> e) {
@@ -93,7 +100,57 @@ public class DoublyLinkedList<E> {
         prev.setNext(next);
         next.setPrev(prev);
         size --;
+        modCount++;
         return e.getElement();
     }
-    
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ElementIterator();
+    }
+
+    // fail-fast cursor over the nodes, from header to trailer
+    private class ElementIterator implements Iterator<E> {
+        private Node<E> cursor = header.getNext();
+        private Node<E> recent = null;  // node returned last, null if none or removed
+        private int expectedModCount = modCount;
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean hasNext() {
+            return cursor != trailer;
+        }
+
+        public E next() throws NoSuchElementException {
+            checkModCount();
+            if (cursor == trailer)
+                throw new NoSuchElementException();
+            recent = cursor;
+            cursor = cursor.getNext();
+            return recent.getElement();
+        }
+
+        public void remove() throws IllegalStateException {
+            if (recent == null)
+                throw new IllegalStateException("Nothing to remove");
+            checkModCount();
+            DoublyLinkedList.this.remove(recent);
+            recent = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            while (cursor != trailer && modCount == expectedModCount) {
+                recent = cursor;
+                cursor = cursor.getNext();
+                action.accept(recent.getElement());
+            }
+            checkModCount();
+        }
+    }
 }
\ No newline at end of file
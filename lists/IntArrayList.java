@@ -0,0 +1,442 @@
+package lists;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/*  A growable list of int values stored in a raw int[], the primitive counterpart of ArrayList.
+    ArrayList keeps Object references, so every value added is boxed into an Integer: an object of 16 bytes or
+    more plus a reference, scattered over the heap and traced by the garbage collector. Here a value costs
+    4 bytes in one contiguous array, and the bulk operations (addAll, getElements, setElements, toArray)
+    are single System.arraycopy calls.
+    The operations mirror those of List: get and set are O(1), add at the end is O(1) amortized (the array
+    doubles when full), add and remove at an index shift the tail with System.arraycopy in O(n - index).
+    Since remove(int) removes by index, removal by value is removeValue. The array never shrinks by itself:
+    trimToSize releases the unused capacity and ensureCapacity reserves it in advance.
+    subList returns a view backed by this list, not a copy: changes through the view are visible in the list
+    and the other way round. A structural change (add, remove, clear) made to the list but not through the view
+    invalidates the view, whose next use throws ConcurrentModificationException. */
+public class IntArrayList {
+
+    public static final int CAPACITY = 30; // Default initial capacity
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] data;
+    private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the views
+
+    public IntArrayList() {
+        this(CAPACITY);
+    }
+
+    public IntArrayList(int capacity) throws IllegalArgumentException {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        data = new int[capacity];
+    }
+
+    /**
+     * Creates a list holding a copy of the given values.
+     *
+     * @param values the initial values
+     */
+    public IntArrayList(int[] values) {
+        data = values.clone();
+        size = values.length;
+    }
+
+    protected void checkIndex(int i, int n) throws ArrayIndexOutOfBoundsException {
+        if (i < 0 || i >= n)
+            throw new ArrayIndexOutOfBoundsException("Illegal index: " + i + ", size was " + n);
+    }
+
+    // checks that [offset, offset + length) lies within an array or list of the given length
+    private static void checkRange(int offset, int length, int n) throws ArrayIndexOutOfBoundsException {
+        if (offset < 0 || length < 0 || offset > n - length)
+            throw new ArrayIndexOutOfBoundsException("Illegal range: offset " + offset + ", length " + length + ", size was " + n);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the length of the backing array.
+     *
+     * @return the number of values the list can hold without growing
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Grows the backing array, if necessary, to hold at least minCapacity values.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length)
+            grow(minCapacity);
+    }
+
+    /**
+     * Shrinks the backing array to the size of the list.
+     */
+    public void trimToSize() {
+        if (size < data.length)
+            data = Arrays.copyOf(data, size);
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY)   // negative: size + length overflowed
+            throw new OutOfMemoryError("Required capacity too large");
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(minCapacity, 2L * data.length));
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    public boolean add(int value) {
+        if (size == data.length)
+            grow(size + 1);
+        data[size++] = value;
+        modCount++;
+        return true;
+    }
+
+    public void add(int index, int value) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size + 1);
+        if (size == data.length)
+            grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+        modCount++;
+    }
+
+    public boolean addAll(int[] values) {
+        return addAll(size, values, 0, values.length);
+    }
+
+    public boolean addAll(IntArrayList other) {
+        return addAll(size, other);
+    }
+
+    public boolean addAll(int index, IntArrayList other) throws ArrayIndexOutOfBoundsException {
+        int[] values = (other == this) ? toArray() : other.data;   // the shift would overwrite our own values
+        return addAll(index, values, 0, other.size);
+    }
+
+    /**
+     * Inserts values[offset, offset + length) at the given index, shifting the
+     * following values to the right.
+     *
+     * @param index  the index of the first inserted value
+     * @param values the source array
+     * @param offset the first index of the source range
+     * @param length the number of values to insert
+     * @return true if the list changed
+     * @throws ArrayIndexOutOfBoundsException if the index or the source range is not valid
+     */
+    public boolean addAll(int index, int[] values, int offset, int length) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size + 1);
+        checkRange(offset, length, values.length);
+        ensureCapacity(size + length);
+        System.arraycopy(data, index, data, index + length, size - index);
+        System.arraycopy(values, offset, data, index, length);
+        size += length;
+        modCount++;
+        return length > 0;
+    }
+
+    public int get(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        return data[index];
+    }
+
+    public int set(int index, int value) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        int oldValue = data[index];
+        data[index] = value;
+        return oldValue;
+    }
+
+    /**
+     * Copies length values starting at the given index into dest[offset, offset + length).
+     *
+     * @param index  the index of the first value to copy
+     * @param dest   the destination array
+     * @param offset the first index of the destination range
+     * @param length the number of values to copy
+     * @throws ArrayIndexOutOfBoundsException if a range is not valid
+     */
+    public void getElements(int index, int[] dest, int offset, int length) throws ArrayIndexOutOfBoundsException {
+        checkRange(index, length, size);
+        checkRange(offset, length, dest.length);
+        System.arraycopy(data, index, dest, offset, length);
+    }
+
+    /**
+     * Overwrites length values starting at the given index with src[offset, offset + length).
+     *
+     * @param index  the index of the first value to overwrite
+     * @param src    the source array
+     * @param offset the first index of the source range
+     * @param length the number of values to copy
+     * @throws ArrayIndexOutOfBoundsException if a range is not valid
+     */
+    public void setElements(int index, int[] src, int offset, int length) throws ArrayIndexOutOfBoundsException {
+        checkRange(index, length, size);
+        checkRange(offset, length, src.length);
+        System.arraycopy(src, offset, data, index, length);
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++)
+            if (data[i] == value)
+                return i;
+        return -1;
+    }
+
+    public int lastIndexOf(int value) {
+        for (int i = size - 1; i >= 0; i--)
+            if (data[i] == value)
+                return i;
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int remove(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        int removedValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    /**
+     * Removes the first occurrence of the given value.
+     *
+     * @param value the value to remove
+     * @return true if the value was found
+     */
+    public boolean removeValue(int value) {
+        int index = indexOf(value);
+        if (index < 0)
+            return false;
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes the values in [fromIndex, toIndex) with a single shift of the tail.
+     *
+     * @param fromIndex the first index to remove, inclusive
+     * @param toIndex   the last index to remove, exclusive
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public void removeRange(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        checkRange(fromIndex, toIndex - fromIndex, size);
+        System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * Removes every value matching the filter in a single compacting pass, O(n).
+     *
+     * @param filter the condition for removal
+     * @return true if any value was removed
+     */
+    public boolean removeIf(IntPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++)
+            if (!filter.test(data[i]))
+                data[kept++] = data[i];
+        if (kept == size)
+            return false;
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes all the values; the capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++)
+            action.accept(data[i]);
+    }
+
+    /**
+     * Returns a view of the values in [fromIndex, toIndex), backed by this list.
+     *
+     * @param fromIndex the first index of the view, inclusive
+     * @param toIndex   the last index of the view, exclusive
+     * @return the view
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public SubList subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        checkRange(fromIndex, toIndex - fromIndex, size);
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * A view of a range of the list. Reads and writes go straight to the
+     * backing array; structural changes go through the list and update the
+     * sizes of the enclosing views.
+     */
+    public class SubList {
+        private final SubList parent;   // the view this one was taken from, null if taken from the list
+        private final int offset;       // index in the list of the first value of the view
+        private int size;
+        private int expectedModCount;
+
+        private SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        // after a structural change made through this view, fixes the sizes of the chain of views
+        private void updateSize(int delta) {
+            for (SubList view = this; view != null; view = view.parent) {
+                view.size += delta;
+                view.expectedModCount = modCount;
+            }
+        }
+
+        public int size() {
+            checkModCount();
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        public int get(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            return data[offset + index];
+        }
+
+        public int set(int index, int value) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            int oldValue = data[offset + index];
+            data[offset + index] = value;
+            return oldValue;
+        }
+
+        public boolean add(int value) {
+            add(size, value);
+            return true;
+        }
+
+        public void add(int index, int value) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size + 1);
+            IntArrayList.this.add(offset + index, value);
+            updateSize(1);
+        }
+
+        public boolean addAll(int[] values) {
+            checkModCount();
+            IntArrayList.this.addAll(offset + size, values, 0, values.length);
+            updateSize(values.length);
+            return values.length > 0;
+        }
+
+        public int remove(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            int removedValue = IntArrayList.this.remove(offset + index);
+            updateSize(-1);
+            return removedValue;
+        }
+
+        /**
+         * Removes every value of the view from the list.
+         */
+        public void clear() {
+            checkModCount();
+            int removed = size;
+            removeRange(offset, offset + removed);
+            updateSize(-removed);
+        }
+
+        public void getElements(int index, int[] dest, int offset, int length) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkRange(index, length, size);
+            checkRange(offset, length, dest.length);
+            System.arraycopy(data, this.offset + index, dest, offset, length);
+        }
+
+        public void setElements(int index, int[] src, int offset, int length) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkRange(index, length, size);
+            checkRange(offset, length, src.length);
+            System.arraycopy(src, offset, data, this.offset + index, length);
+        }
+
+        public int indexOf(int value) {
+            checkModCount();
+            for (int i = 0; i < size; i++)
+                if (data[offset + i] == value)
+                    return i;
+            return -1;
+        }
+
+        public int lastIndexOf(int value) {
+            checkModCount();
+            for (int i = size - 1; i >= 0; i--)
+                if (data[offset + i] == value)
+                    return i;
+            return -1;
+        }
+
+        public boolean contains(int value) {
+            return indexOf(value) >= 0;
+        }
+
+        public int[] toArray() {
+            checkModCount();
+            return Arrays.copyOfRange(data, offset, offset + size);
+        }
+
+        public void forEach(IntConsumer action) {
+            checkModCount();
+            for (int i = 0; i < size; i++)
+                action.accept(data[offset + i]);
+        }
+
+        public SubList subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkRange(fromIndex, toIndex - fromIndex, size);
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+    }
+}
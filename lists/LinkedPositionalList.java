@@ -1,7 +1,10 @@
 package lists;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * A linked list implementation of the {@link PositionalList} interface.
@@ -10,6 +13,19 @@ import java.util.NoSuchElementException;
  * allowing for efficient insertion and removal of elements at both ends of the list as well as
  * in-between. It provides methods to add, remove, and access elements at specific positions
  * in the list.
+ * <p>
+ * The iterator walks the nodes directly, with no validation of positions nor exceptions on the
+ * way: it is fail-fast, a structural change not made through the iterator is detected by a
+ * modification counter.
+ * <p>
+ * A list constructed with a pool capacity recycles the nodes of removed elements through a bounded
+ * free list, so a steady state of insertions and removals allocates no nodes. Its positions are then
+ * small immutable handles holding the list, the node and its generation, a counter the node
+ * increments every time it is removed: a position kept after its removal stays invalid even when
+ * its node is reused, because the generations differ, and a position of another list is rejected.
+ * Every insertion still creates one handle, which the node caches until the element is removed:
+ * first, last, before, after and the iterator return the cached handle and allocate nothing, so
+ * every position of an element is the same object.
  *
  * @param <E> the type of elements stored in the list
  */
@@ -25,6 +41,8 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
         private E element;
         private Node<E> prev;
         private Node<E> next;
+        private int generation = 0;     // incremented on every removal, checked by the handles
+        private Handle<E> handle;       // cached position of the current element, pooled lists only
 
         public Node(E e, Node<E> p, Node<E> n) {
             element = e;
@@ -59,11 +77,59 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
         }
     }
 
+    /**
+     * The position of an element in a list that recycles its nodes: the list,
+     * the node and the generation it had when the element was inserted. There
+     * is one handle per node and generation, so identity is equality.
+     *
+     * @param <E> the type of element stored in the node
+     */
+    private static final class Handle<E> implements Position<E> {
+        private final LinkedPositionalList<E> owner;
+        private final Node<E> node;
+        private final int generation;
+
+        Handle(LinkedPositionalList<E> owner, Node<E> node) {
+            this.owner = owner;
+            this.node = node;
+            this.generation = node.generation;
+        }
+
+        boolean isValid() {
+            return node.generation == generation && node.getNext() != null;
+        }
+
+        public E getElement() throws IllegalStateException {
+            if (!isValid())
+                throw new IllegalStateException("Position no longer valid");
+            return node.element;
+        }
+    }
+
     private Node<E> header;
     private Node<E> trailer;
     private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the iterators
+    private final int poolCapacity;
+    private Node<E> pool = null;    // recycled nodes, linked through prev
+    private int poolSize = 0;
 
     public LinkedPositionalList() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty list that keeps up to poolCapacity removed nodes
+     * for reuse; with a capacity of 0 no node is recycled and positions are
+     * the nodes themselves.
+     *
+     * @param poolCapacity the maximum number of recycled nodes kept
+     * @throws IllegalArgumentException if poolCapacity is negative
+     */
+    public LinkedPositionalList(int poolCapacity) throws IllegalArgumentException {
+        if (poolCapacity < 0)
+            throw new IllegalArgumentException("Pool capacity must not be negative");
+        this.poolCapacity = poolCapacity;
         header = new Node<>(null, null, null); 
         trailer = new Node<>(null, header, null);
         header.setNext(trailer);                     
@@ -77,7 +143,15 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
      * @throws IllegalArgumentException if the position is invalid or no longer valid
      */
     private Node<E> validate(Position<E> p) throws IllegalArgumentException {
-        if (!(p instanceof Node))
+        if (p instanceof Handle) {
+            Handle<E> handle = (Handle<E>) p;
+            if (handle.owner != this)
+                throw new IllegalArgumentException("Position does not belong to this list");
+            if (!handle.isValid())
+                throw new IllegalArgumentException("Position no longer valid");
+            return handle.node;
+        }
+        if (!(p instanceof Node) || poolCapacity > 0)   // a pooled list never hands out nodes
             throw new IllegalArgumentException("Invalid position");
         Node<E> node = (Node<E>) p; 
         if (node.getNext() == null)
@@ -85,7 +159,15 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
         return node;
     }
 
+    // the node as a position, or null for the sentinels
     private Position<E> position(Node<E> node) {
+        if (node == header || node == trailer)
+            return null;
+        if (poolCapacity > 0) {
+            if (node.handle == null)
+                node.handle = new Handle<>(this, node);
+            return node.handle;
+        }
         return node;  
     }
 
@@ -116,10 +198,20 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
     }
 
     private Position<E> addBetween(E e, Node<E> predec, Node<E> succes) {
-        Node<E> newest = new Node<>(e, predec, succes);
+        Node<E> newest = pool;
+        if (newest != null) {   // reuse a recycled node
+            pool = newest.getPrev();
+            poolSize--;
+            newest.setElement(e);
+            newest.setPrev(predec);
+            newest.setNext(succes);
+        } else {
+            newest = new Node<>(e, predec, succes);
+        }
         predec.setNext(newest);
         succes.setPrev(newest);
         size++;
+        modCount++;
         return position(newest);
     }
 
@@ -143,58 +235,99 @@ public class LinkedPositionalList<E> implements PositionalList<E> {
 
     public E set(Position<E> p, E e) throws IllegalArgumentException {
         Node<E> node = validate(p);
-        E oldItem = node.getElement();
+        E oldItem = node.element;     // validated already
         node.setElement(e);
         return oldItem;
     }
 
     public E remove(Position<E> p) throws IllegalArgumentException {
-        Node<E> node = validate(p);
+        return remove(validate(p));
+    }
+
+    // unlinks a valid node and recycles it if the pool has room
+    private E remove(Node<E> node) {
         Node<E> predecessor = node.getPrev();
         Node<E> successor = node.getNext();
         predecessor.setNext(successor);
         successor.setPrev(predecessor);
         size--;
-        E oldItem = node.getElement();
+        modCount++;
+        E oldItem = node.element;
         node.setElement(null);  
         node.setNext(null);     
         node.setPrev(null);     
+        node.generation++;      // invalidates the handle of the removed element
+        node.handle = null;
+        if (poolSize < poolCapacity) {
+            node.setPrev(pool);
+            pool = node;
+            poolSize++;
+        }
         return oldItem;
     }
 
     public E removeFirst() throws NoSuchElementException {
         if (isEmpty()) throw new NoSuchElementException();
-        return remove(first());
+        return remove(header.getNext());
     }
 
     public E removeLast() throws NoSuchElementException {
         if (isEmpty()) throw new NoSuchElementException();
-        return remove(last());
+        return remove(trailer.getPrev());
     }
 
     public Iterable<Position<E>> positions() {
         return new PositionIterable();
     }
 
+    /**
+     * A fail-fast cursor over the nodes, from the header to the trailer.
+     */
     private class PositionIterator implements Iterator<Position<E>> {
-        private Position<E> cursor = first(); 
-        private Position<E> recent = null;    
+        private Node<E> cursor = header.getNext();  // node of the next position
+        private Node<E> recent = null;              // node returned last, null if none or removed
+        private int expectedModCount = modCount;
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
 
         public boolean hasNext() {
-            return cursor != null;
+            return cursor != trailer;
         }
 
         public Position<E> next() throws NoSuchElementException {
-            if (cursor == null) throw new NoSuchElementException("No more elements");
+            checkModCount();
+            if (cursor == trailer) throw new NoSuchElementException("No more elements");
             recent = cursor;
-            cursor = after(cursor);
-            return recent;
+            cursor = cursor.getNext();
+            return position(recent);
         }
 
         public void remove() throws IllegalStateException {
             if (recent == null) throw new IllegalStateException("Nothing to remove");
+            checkModCount();
             LinkedPositionalList.this.remove(recent); 
             recent = null; 
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Performs the action on each remaining position in a single loop over
+         * the nodes, checking for modifications once per position.
+         *
+         * @param action the action to perform
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super Position<E>> action) {
+            Objects.requireNonNull(action);
+            while (cursor != trailer && modCount == expectedModCount) {
+                recent = cursor;
+                cursor = cursor.getNext();
+                action.accept(position(recent));
+            }
+            checkModCount();
         }
     }
 
@@ -4,9 +4,12 @@ package lists;
 // this means that if you wanna use this feel free to, but you will likely need to make a few
 // changes in order to make this work the best for you
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Vector;
+import java.util.function.Consumer;
 
 /**
  * Adapter for the HList interface that uses a Vector of Object.
@@ -18,6 +21,11 @@ public class ListAdapter<E> implements List<E> {
     */
     protected Vector<E> vector;
 
+    /**
+     * Number of structural modifications (insertions and removals), checked by the sublists.
+     */
+    protected int modCount = 0;
+
     /**
      * ListAdapter constructor, it initializes a new vector of Objects.
      */
@@ -25,6 +33,15 @@ public class ListAdapter<E> implements List<E> {
         this.vector = new Vector<E>();
     }
 
+    /**
+     * ListAdapter constructor over an existing vector, used by the sublists, which keep no vector of their own.
+     *
+     * @param vector the vector holding the elements
+     */
+    protected ListAdapter(Vector<E> vector) {
+        this.vector = vector;
+    }
+
     // metodi di HCollection
 
     /**
@@ -37,6 +54,7 @@ public class ListAdapter<E> implements List<E> {
     @Override
     public boolean add(Object o) {
         vector.addElement((E) o);
+        modCount++;
         return true;
     }
 
@@ -64,6 +82,7 @@ public class ListAdapter<E> implements List<E> {
     @Override
     public void clear() {
         vector.removeAllElements();
+        modCount++;
     }
 
     /**
@@ -108,7 +127,15 @@ public class ListAdapter<E> implements List<E> {
     public boolean equals(Object o) {
         if (o instanceof ListAdapter) {
             ListAdapter<?> other = (ListAdapter<?>) o;
-            return vector.equals(other.vector);
+            if (size() != other.size()) {
+                return false;
+            }
+            for (int i = 0; i < size(); i++) {     // element by element: either list may be a sublist
+                if (!Objects.equals(get(i), other.get(i))) {
+                    return false;
+                }
+            }
+            return true;
         }
         return false;
     }
@@ -151,7 +178,11 @@ public class ListAdapter<E> implements List<E> {
      */
     @Override
     public boolean remove(Object o) {
-        return vector.removeElement(o);
+        boolean removed = vector.removeElement(o);
+        if (removed) {
+            modCount++;
+        }
+        return removed;
     }
 
     /**
@@ -189,6 +220,9 @@ public class ListAdapter<E> implements List<E> {
                 modified = true;
             }
         }
+        if (modified) {
+            modCount++;
+        }
         return modified;
     }
 
@@ -247,6 +281,7 @@ public class ListAdapter<E> implements List<E> {
     @Override
     public void add(int index, Object element) {
         vector.insertElementAt((E) element, index);
+        modCount++;
     }
 
     /**
@@ -308,10 +343,9 @@ public class ListAdapter<E> implements List<E> {
      *
      * @return un iteratore di lista per la lista
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Iterable<E> listIterator() {
-        return (Iterable<E>) new ListAdapterListIterator(0);
+        return new ListAdapterListIterator(0);
     }
 
     /**
@@ -320,10 +354,11 @@ public class ListAdapter<E> implements List<E> {
      * @param index la posizione iniziale dell'iteratore di lista
      * @return un iteratore di lista per la lista
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Iterable<E> listIterator(int index) {
-        return (Iterable<E>) new ListAdapterListIterator(index);
+        if (index < 0 || index > vector.size())
+            throw new ArrayIndexOutOfBoundsException("Illegal index: " + index + ", size was " + vector.size());
+        return new ListAdapterListIterator(index);
     }
 
     /**
@@ -337,6 +372,7 @@ public class ListAdapter<E> implements List<E> {
     public E remove(int index) throws ArrayIndexOutOfBoundsException {
         E element = vector.elementAt(index);
         vector.removeElementAt(index);
+        modCount++;
         return element;
     }
 
@@ -357,7 +393,8 @@ public class ListAdapter<E> implements List<E> {
     }
 
     /**
-     * Restituisce una sublist della lista tra due indici specificati.
+     * Restituisce una vista della lista tra due indici specificati: nessun elemento viene copiato,
+     * e le modifiche fatte attraverso la vista sono visibili nella lista e viceversa.
      *
      * @param fromIndex l'indice iniziale (inclusivo)
      * @param toIndex l'indice finale (esclusivo)
@@ -366,17 +403,34 @@ public class ListAdapter<E> implements List<E> {
      */
     @Override
     public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
-        return new SubList(this, fromIndex, toIndex);
+        checkRange(fromIndex, toIndex, size());
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Verifica che [fromIndex, toIndex) sia un intervallo valido di una lista di n elementi.
+     */
+    protected static void checkRange(int fromIndex, int toIndex, int n) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > n || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), size was " + n);
     }
 
     // classi iteratori interne
 
     /**
-     * Implementazione dell'iteratore per ListAdapter.
+     * Implementazione dell'iteratore per ListAdapter: un cursore sul vettore, fail-fast. Una modifica
+     * strutturale della lista non fatta attraverso l'iteratore viene rilevata confrontando modCount
+     * con il valore atteso, e il successivo uso dell'iteratore lancia ConcurrentModificationException.
      */
-    protected class ListAdapterIterator implements Iterator<E> {
+    protected class ListAdapterIterator implements Iterator<E>, lists.Iterator<E> {
         int cursor;
         int lastRet = -1;
+        int expectedModCount = modCount;
+
+        final void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
 
         /**
          * Verifica se ci sono altri elementi nella lista.
@@ -384,22 +438,23 @@ public class ListAdapter<E> implements List<E> {
          * @return true se ci sono altri elementi nella lista
          */
         public boolean hasNext() {
-            return cursor != vector.size();
+            return cursor < vector.size();
         }
 
         /**
          * Restituisce il prossimo elemento nella lista.
          *
          * @return il prossimo elemento nella lista
-         * @throws ArrayIndexOutOfBoundsException se non ci sono più elementi
+         * @throws NoSuchElementException se non ci sono più elementi
          */
-        public E next() throws ArrayIndexOutOfBoundsException {
+        public E next() throws NoSuchElementException {
+            checkModCount();
             int i = cursor;
             if (i >= vector.size()) {
-                throw new RuntimeException("No such element");
+                throw new NoSuchElementException();
             }
             cursor = i + 1;
-            return (E) vector.elementAt(lastRet = i);   // necessary
+            return vector.elementAt(lastRet = i);
         }
 
         /**
@@ -409,9 +464,31 @@ public class ListAdapter<E> implements List<E> {
             if (lastRet < 0) {
                 throw new IllegalStateException();
             }
+            checkModCount();
             vector.removeElementAt(lastRet);
+            modCount++;
             cursor = lastRet;
             lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Esegue l'azione su ogni elemento rimanente con un unico ciclo sul vettore,
+         * controllando modCount una volta per elemento.
+         *
+         * @param action l'azione da eseguire
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int n = vector.size();
+            int i = cursor;
+            for (; i < n && modCount == expectedModCount; i++)
+                action.accept(vector.elementAt(i));
+            if (i > cursor)
+                lastRet = i - 1;
+            cursor = i;
+            checkModCount();
         }
     }
 
@@ -432,44 +509,20 @@ public class ListAdapter<E> implements List<E> {
             return cursor != 0;
         }
 
-        /**
-         * Verifica se ci sono elementi successivi nella lista.
-         *
-         * @return true se ci sono elementi successivi nella lista
-         * @implNote also != size() should work since cursor +2 is never made, but < is better
-         */
-        public boolean hasNext() {
-            return cursor < size();
-        }
-
         /**
          * Restituisce l'elemento precedente nella lista.
          *
          * @return l'elemento precedente nella lista
-         * @throws ArrayIndexOutOfBoundsException se non ci sono elementi precedenti
+         * @throws NoSuchElementException se non ci sono elementi precedenti
          */
-        public E previous() throws ArrayIndexOutOfBoundsException {
+        public E previous() throws NoSuchElementException {
+            checkModCount();
             int i = cursor - 1;
             if (i < 0) {
-                throw new RuntimeException("No such element");
-            }
-            cursor = i;
-            return (E) vector.elementAt(lastRet = i);   // necessary
-        }
-
-        /**
-         * Restituisce l'elemento successivo nella lista.
-         *
-         * @return l'elemento successivo nella lista
-         * @throws ArrayIndexOutOfBoundsException se non ci sono elementi precedenti
-         */
-        public E next() throws ArrayIndexOutOfBoundsException {
-            int i = cursor+ 1;
-            if (i > size()) {
-                throw new RuntimeException("No such element");
+                throw new NoSuchElementException();
             }
             cursor = i;
-            return (E) vector.elementAt(lastRet = i);   // necessary
+            return vector.elementAt(lastRet = i);
         }
 
         /**
@@ -494,102 +547,137 @@ public class ListAdapter<E> implements List<E> {
          * Sostituisce l'ultimo elemento restituito dall'iteratore con un nuovo elemento.
          *
          * @param o il nuovo elemento
-         * @throws ArrayIndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
+         * @throws IllegalStateException se nessun elemento è stato restituito o è stato rimosso
          */
-        @SuppressWarnings("unchecked")
-        public void set(Object o) throws ArrayIndexOutOfBoundsException {
+        public void set(E o) throws IllegalStateException {
             if (lastRet < 0) {
                 throw new IllegalStateException();
             }
-            vector.setElementAt((E) o, lastRet);
+            checkModCount();
+            vector.setElementAt(o, lastRet);
         }
 
         /**
          * Aggiunge un elemento alla lista nella posizione corrente dell'iteratore.
          *
          * @param o l'elemento da aggiungere
-         * @throws ArrayIndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
          */
-        @SuppressWarnings("unchecked")
-        public void add(Object o) throws ArrayIndexOutOfBoundsException {
+        public void add(E o) {
+            checkModCount();
             int i = cursor;
-            vector.insertElementAt((E) o, i);
+            vector.insertElementAt(o, i);
+            modCount++;
             cursor = i + 1;
             lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Restituisce un nuovo iteratore dall'inizio della lista.
+         *
+         * @return un iteratore sulla lista
+         */
+        public Iterator<E> iterator() {
+            return new ListAdapterIterator();
         }
     }
 
     /**
-     * Implementazione della sottoclasse SubList che permette di modificare la lista principale
-     * attraverso le operazioni sulla sublista.
+     * Implementazione della sottoclasse SubList: una vista sull'intervallo [offset, offset + size) della
+     * lista principale, senza copie. Letture e scritture agiscono direttamente sul vettore della lista
+     * principale; le modifiche strutturali (add, remove, clear) passano dalla lista principale e
+     * aggiornano la dimensione di questa vista e delle viste da cui è stata ottenuta. Una modifica
+     * strutturale fatta non attraverso la vista la invalida: il suo uso successivo lancia
+     * ConcurrentModificationException.
      */
     protected class SubList extends ListAdapter<E> {
-        private ListAdapter<E> parent;
-        private int indexFirst;
+        private final SubList parent;   // la vista da cui è stata ottenuta, null se ottenuta dalla lista
+        private final int offset;       // indice nella lista principale del primo elemento della vista
         private int size;
+        private int expectedModCount;
 
         /**
          * Costruttore della classe SubList.
          *
-         * @param parent la lista principale da cui è stata creata la sublist
-         * @param fromIndex l'indice iniziale della sublist (inclusivo)
-         * @param toIndex l'indice finale della sublist (esclusivo)
+         * @param parent la vista da cui è stata creata la sublist, null se creata dalla lista principale
+         * @param offset l'indice nella lista principale del primo elemento
+         * @param size il numero di elementi della sublist
          */
-        SubList(ListAdapter<E> parent, int fromIndex, int toIndex) {
+        SubList(SubList parent, int offset, int size) {
+            super(null);    // the elements live in the vector of the main list
             this.parent = parent;
-            this.indexFirst = fromIndex;
-            this.size = toIndex-fromIndex;
-            this.vector = new Vector<>(parent.vector.subList(fromIndex, toIndex));
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = ListAdapter.this.modCount;
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (ListAdapter.this.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        private void checkIndex(int index, int n) throws ArrayIndexOutOfBoundsException {
+            if (index < 0 || index >= n)
+                throw new ArrayIndexOutOfBoundsException("Illegal index: " + index + ", size was " + n);
+        }
+
+        // dopo una modifica strutturale fatta attraverso questa vista, aggiorna le dimensioni della catena di viste
+        private void updateSize(int delta) {
+            for (SubList view = this; view != null; view = view.parent) {
+                view.size += delta;
+                view.expectedModCount = ListAdapter.this.modCount;
+            }
         }
 
         /**
-         * Restituisce la dimensione logica della sublist
+         * Restituisce la dimensione della sublist
          */
         @Override
         public int size() {
+            checkModCount();
             return size;
         }
 
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
         /**
-         * Aggiunge un elemento alla sublist
+         * Aggiunge un elemento in fondo alla sublist
          *
          * @param o l'elemento da aggiungere
          */
         @Override
         public boolean add(Object o) {
-            super.add(indexFirst, o);
-            parent.add(indexFirst, o);
-            size++;
+            add(size(), o);
             return true;
         }
-        
+
         /**
          * Aggiunge un elemento alla sublist in una posizione specificata.
          *
          * @param index la posizione in cui aggiungere l'elemento
          * @param o l'elemento da aggiungere
+         * @throws ArrayIndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
          */
         @Override
         public void add(int index, Object o) {
-            super.add(index, o);
-            parent.add(indexFirst + index, o);
-            size++;
+            checkModCount();
+            checkIndex(index, size + 1);
+            ListAdapter.this.add(offset + index, o);
+            updateSize(1);
         }
 
         /**
-         * Aggiunge tutti gli elementi di una collezione alla sublist
+         * Aggiunge tutti gli elementi di una collezione in fondo alla sublist
          *
          * @param c la collezione contenente gli elementi da aggiungere
          * @return true se la sublist è stata modificata
          */
         @Override
         public boolean addAll(Collection<E> c) {
-            boolean modified = super.addAll(c);
-            if (modified) {
-                parent.addAll(indexFirst, c);       
-                size += c.size();
-            }
-            return modified;
+            return addAll(size(), c);
         }
 
         /**
@@ -601,12 +689,27 @@ public class ListAdapter<E> implements List<E> {
          */
         @Override
         public boolean addAll(int index, Collection<E> c) {
-            boolean modified = super.addAll(index, c);
-            if (modified) {
-                parent.addAll(indexFirst + index, c);
-                size += c.size();
-            }
-            return modified;
+            checkModCount();
+            checkIndex(index, size + 1);
+            E[] elements = c.toArray();     // snapshot: c may be this view
+            for (int i = 0; i < elements.length; i++)
+                ListAdapter.this.add(offset + index + i, elements[i]);
+            if (elements.length > 0)
+                updateSize(elements.length);
+            return elements.length > 0;
+        }
+
+        /**
+         * Rimuove tutti gli elementi della sublist dalla lista principale
+         */
+        @Override
+        public void clear() {
+            checkModCount();
+            int removed = size;
+            for (int i = removed - 1; i >= 0; i--)
+                ListAdapter.this.remove(offset + i);
+            if (removed > 0)
+                updateSize(-removed);
         }
 
         /**
@@ -618,32 +721,69 @@ public class ListAdapter<E> implements List<E> {
          */
         @Override
         public E get(int index) throws ArrayIndexOutOfBoundsException {
-            return super.get(index);
+            checkModCount();
+            checkIndex(index, size);
+            return ListAdapter.this.vector.elementAt(offset + index);
         }
 
         /**
-         * Restituisce l'indice della prima occorrenza dell'elemento specificato nella sublist.
+         * Sostituisce l'elemento in una posizione specificata della sublist con un nuovo elemento.
+         *
+         * @param index la posizione dell'elemento da sostituire
+         * @param element il nuovo elemento
+         * @return l'elemento precedente nella posizione specificata
+         * @throws ArrayIndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
+         */
+        @Override
+        public E set(int index, Object element) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            return ListAdapter.this.set(offset + index, element);
+        }
+
+        /**
+         * Restituisce l'indice, relativo alla sublist, della prima occorrenza dell'elemento specificato.
          *
          * @param o l'elemento da cercare
          * @return l'indice della prima occorrenza dell'elemento, o -1 se non è presente
          */
         @Override
         public int indexOf(Object o) {
-            int index = super.indexOf(o);
-            return (index == -1) ? -1 : indexFirst + index;
+            checkModCount();
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(o, ListAdapter.this.vector.elementAt(offset + i))) {
+                    return i;
+                }
+            }
+            return -1;
         }
 
         /**
-         * Restituisce l'indice dell'ultima occorrenza dell'elemento specificato nella sublist.
+         * Restituisce l'indice, relativo alla sublist, dell'ultima occorrenza dell'elemento specificato.
          *
          * @param o l'elemento da cercare
          * @return l'indice dell'ultima occorrenza dell'elemento, o -1 se non è presente
-         * @throws IndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
          */
         @Override
-        public int lastIndexOf(Object o) throws IndexOutOfBoundsException {
-            int index = super.lastIndexOf(o);
-            return (index == -1) ? -1 : indexFirst + index;
+        public int lastIndexOf(Object o) {
+            checkModCount();
+            for (int i = size - 1; i >= 0; i--) {
+                if (Objects.equals(o, ListAdapter.this.vector.elementAt(offset + i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Verifica se la sublist contiene un elemento specificato.
+         *
+         * @param o l'elemento da verificare
+         * @return true se la sublist contiene l'elemento specificato, altrimenti false
+         */
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
         }
 
         /**
@@ -655,14 +795,15 @@ public class ListAdapter<E> implements List<E> {
          */
         @Override
         public E remove(int index) throws ArrayIndexOutOfBoundsException {
-            E element = super.remove(index);
-            parent.remove(indexFirst + index);
-            size--;
+            checkModCount();
+            checkIndex(index, size);
+            E element = ListAdapter.this.remove(offset + index);
+            updateSize(-1);
             return element;
         }
 
         /**
-         * Rimuove l'elemento se presente nella SubList
+         * Rimuove la prima occorrenza dell'elemento se presente nella SubList
          *
          * @return true se la rimozione è effettuabile altrimenti false
          */
@@ -685,10 +826,9 @@ public class ListAdapter<E> implements List<E> {
         @Override
         public boolean removeAll(Collection<E> c) {
             boolean modified = false;
-            for (int i = 0; i < size(); i++) {
-                if (c.contains(vector.elementAt(i))) {
+            for (int i = size() - 1; i >= 0; i--) {
+                if (c.contains(get(i))) {
                     remove(i);
-                    i--; // Adjust index after removal
                     modified = true;
                 }
             }
@@ -697,7 +837,6 @@ public class ListAdapter<E> implements List<E> {
 
         /**
         * Mantiene solo gli elementi della sublist presenti in una collezione specificata.
-        * Rimuove tutti gli elementi della sublist che non sono presenti nella collezione specificata.
         *
         * @param c la collezione contenente gli elementi da mantenere
         * @return true se la sublist è stata modificata, altrimenti false
@@ -705,52 +844,62 @@ public class ListAdapter<E> implements List<E> {
         @Override
         public boolean retainAll(Collection<E> c) {
             boolean modified = false;
-
-            for (int i = 0; i < size(); i++) {
+            for (int i = size() - 1; i >= 0; i--) {
                 if (!c.contains(get(i))) {
                     remove(i);
-                    i--; // Adjust index after removal
                     modified = true;
                 }
             }
-
-            if (this instanceof SubList) {
-                SubList subList = (SubList) this;
-                subList.size = this.size() - subList.indexFirst;
-            }
             return modified;
         }
 
-        /**
-        * Verifica se la sublist contiene un elemento specificato.
-        *
-        * @param o l'elemento da verificare
-        * @return true se la sublist contiene l'elemento specificato, altrimenti false
-        */
+        @SuppressWarnings("unchecked")
         @Override
-        public boolean contains(Object o) {
-            for (int i = 0; i < size(); i++) {
-                if (vector.elementAt(i) != null && vector.elementAt(i).equals(o)) {
-                    return true;
-                }
+        public E[] toArray() {
+            checkModCount();
+            E[] array = (E[]) new Object[size];
+            for (int i = 0; i < size; i++)
+                array[i] = ListAdapter.this.vector.elementAt(offset + i);
+            return array;
+        }
+
+        @Override
+        public E[] toArray(E[] a) {
+            checkModCount();
+            if (a.length < size) {
+                return toArray();
+            }
+            for (int i = 0; i < size; i++)
+                a[i] = ListAdapter.this.vector.elementAt(offset + i);
+            if (a.length > size) {
+                a[size] = null;
             }
-            return false;
+            return a;
         }
 
-        /**
-         * Sostituisce l'elemento in una posizione specificata della sublist con un nuovo elemento.
-         *
-         * @param index la posizione dell'elemento da sostituire
-         * @param element il nuovo elemento
-         * @return l'elemento precedente nella posizione specificata
-         * @throws ArrayIndexOutOfBoundsException se l'indice è fuori dall'intervallo valido
-         */
-        @SuppressWarnings("unchecked")
         @Override
-        public E set(int index, Object element) throws ArrayIndexOutOfBoundsException {
-            Object oldElement = super.set(index, element);
-            parent.set(indexFirst + index, element);
-            return (E) oldElement;
+        public int hashCode() {
+            checkModCount();
+            int hash = 1;
+            for (int i = 0; i < size; i++)
+                hash = 31 * hash + Objects.hashCode(ListAdapter.this.vector.elementAt(offset + i));
+            return hash;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator(int index) {
+            checkIndex(index, size() + 1);
+            return new SubListIterator(index);
         }
 
         /**
@@ -763,7 +912,74 @@ public class ListAdapter<E> implements List<E> {
          */
         @Override
         public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
-            return new SubList(parent, indexFirst + fromIndex, indexFirst + toIndex);
+            checkModCount();
+            checkRange(fromIndex, toIndex, size);
+            return ListAdapter.this.new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        /**
+         * Iteratore di lista sulla sublist; le modifiche passano dai metodi della sublist.
+         */
+        private class SubListIterator implements ListIterator<E>, Iterator<E>, lists.Iterator<E> {
+            private int cursor;
+            private int lastRet = -1;
+
+            SubListIterator(int index) {
+                cursor = index;
+            }
+
+            public boolean hasNext() {
+                return cursor < size();
+            }
+
+            public E next() throws NoSuchElementException {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                lastRet = cursor;
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public E previous() throws NoSuchElementException {
+                if (!hasPrevious())
+                    throw new NoSuchElementException();
+                lastRet = --cursor;
+                return get(cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                if (lastRet < 0)
+                    throw new IllegalStateException();
+                SubList.this.remove(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+            }
+
+            public void set(E o) {
+                if (lastRet < 0)
+                    throw new IllegalStateException();
+                SubList.this.set(lastRet, o);
+            }
+
+            public void add(E o) {
+                SubList.this.add(cursor++, o);
+                lastRet = -1;
+            }
+
+            public Iterator<E> iterator() {
+                return new SubListIterator(0);
+            }
         }
     }
 }
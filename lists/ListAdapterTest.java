@@ -53,6 +53,8 @@ public class ListAdapterTest<E> {
         assertEquals(6, list.size());
         assertTrue(list.contains("NewElement"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.add("SubNewElement");
         assertEquals(4, sublist.size());
         assertTrue(sublist.contains("SubNewElement"));
@@ -69,6 +71,8 @@ public class ListAdapterTest<E> {
         assertEquals(6, list.size());
         assertEquals("IndexedElement", list.get(2));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.add(1, "SubIndexedElement");
         assertEquals(4, sublist.size());
         assertEquals("SubIndexedElement", sublist.get(1));
@@ -90,8 +94,10 @@ public class ListAdapterTest<E> {
         assertTrue(list.contains("ElementA"));
         assertTrue(list.contains("ElementB"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.addAll(otherList);
-        assertEquals(7, sublist.size());
+        assertEquals(5, sublist.size());
         assertTrue(sublist.contains("ElementA"));
         assertTrue(sublist.contains("ElementB"));
     }
@@ -105,6 +111,8 @@ public class ListAdapterTest<E> {
         list.clear();
         assertTrue(list.isEmpty());
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.clear();
         assertTrue(sublist.isEmpty());
     }
@@ -200,6 +208,8 @@ public class ListAdapterTest<E> {
         assertTrue(list.remove("Element3"));
         assertEquals(4, list.size());
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         assertTrue(sublist.remove("Element2"));
         assertEquals(2, sublist.size());
     }
@@ -231,6 +241,8 @@ public class ListAdapterTest<E> {
         assertEquals(4, list.size());
         assertFalse(list.contains("Element3"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.remove(1);
         assertEquals(2, sublist.size());
         assertFalse(sublist.contains("Element3"));
@@ -252,6 +264,8 @@ public class ListAdapterTest<E> {
         assertFalse(list.contains("Element2"));
         assertFalse(list.contains("Element3"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.removeAll(otherList);
         assertEquals(1, sublist.size());
         assertFalse(sublist.contains("Element2"));
@@ -275,8 +289,10 @@ public class ListAdapterTest<E> {
         assertTrue(list.contains("Element3"));
         assertTrue(list.contains("Element4"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.retainAll(otherList);
-        assertEquals(2, sublist.size());
+        assertEquals(3, sublist.size());
         assertTrue(sublist.contains("Element2"));
         assertTrue(sublist.contains("Element3"));
     }
@@ -349,7 +365,7 @@ public class ListAdapterTest<E> {
         assertEquals(2, list.indexOf("Element3"));
         assertEquals(-1, list.indexOf("NonExistentElement"));
 
-        assertEquals(2, sublist.indexOf("Element3"));
+        assertEquals(1, sublist.indexOf("Element3"));
         assertEquals(-1, sublist.indexOf("Element5"));
     }
 
@@ -363,8 +379,10 @@ public class ListAdapterTest<E> {
         list.add("Element3");
         assertEquals(5, list.lastIndexOf("Element3"));
 
+        setUp();    // la modifica strutturale della lista invalida la sublist
+
         sublist.add("Element4");
-        assertEquals(4, sublist.lastIndexOf("Element4"));
+        assertEquals(3, sublist.lastIndexOf("Element4"));
     }
 
     /**
@@ -530,7 +548,8 @@ public class ListAdapterTest<E> {
         assertEquals(3, subsublist.size());
         assertEquals("NewElement", subsublist.get(2));
 
-        assertEquals(3, sublist.size());
+        assertEquals(4, sublist.size());
+        assertEquals("NewElement", list.get(3));
     }
 
     /**
@@ -544,9 +563,10 @@ public class ListAdapterTest<E> {
         subsublist.remove("Element2");
 
         assertEquals(1, subsublist.size());
-        assertEquals("Element2", subsublist.get(0));
+        assertEquals("Element3", subsublist.get(0));
 
-        assertEquals("Element2", sublist.get(0));
+        assertEquals("Element3", sublist.get(0));
+        assertEquals(2, sublist.size());
     }
 
     /**
@@ -560,5 +580,16 @@ public class ListAdapterTest<E> {
         subsublist.set(1, "ModifiedElement");
 
         assertEquals("ModifiedElement", subsublist.get(1));
+        assertEquals("ModifiedElement", list.get(2));
+    }
+
+    /**
+     * Test per l'invalidazione di una sottolista.
+     * Verifica che una modifica strutturale della lista principale renda la sottolista inutilizzabile.
+     */
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testSublistInvalidation() {
+        list.remove(0);
+        sublist.get(0);
     }
 }
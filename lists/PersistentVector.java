@@ -0,0 +1,702 @@
+package lists;
+
+/*  A persistent vector: an immutable list whose update operations return a new version of the list, sharing
+    almost all of its structure with the old one, which stays valid and unchanged.
+    The elements are stored in a bitmapped trie of 32-way nodes (as in Clojure's and Scala's vectors): the
+    leaves hold 32 elements each, and the path to an element is given by the digits of its index in base 32,
+    5 bits per level. The last, partially filled leaf (the tail) is kept outside of the trie, so appends touch
+    the trie only once every 32 elements.
+    get(int index) reads one node per level: O(log32 n), at most 7 levels for any int index, and O(1) for the
+    elements of the tail. updated(int index, E element) copies the path from the root to the leaf, O(log32 n)
+    nodes of 32 references; appended(E element) and removedLast() copy the tail, or a path every 32 elements.
+    Every other node is shared between the versions.
+    A vector is never modified once constructed, so it can be published to and read by any number of threads
+    without synchronization. The mutating methods of List throw UnsupportedOperationException.
+    A Builder is the transient form of a vector, to build or change one in bulk: it owns the nodes it
+    creates and updates them in place, copying only the nodes it shares with published vectors, so n
+    appends cost O(n) with no intermediate versions. build() publishes its contents as a vector in O(1);
+    the builder can still be used afterwards, and copies again the nodes the vector shares with it. A
+    builder is not thread-safe. */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+public final class PersistentVector<E> implements List<E> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS; // children per node, elements per leaf
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * A node of the trie: a leaf holds elements, an inner node holds the
+     * children. A node whose owner is a builder can be updated in place by
+     * that builder only; published nodes are never modified.
+     */
+    private static final class Node {
+        final Object owner;
+        final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentVector<Object> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;        // BITS times the number of inner levels above the leaves
+    private final Node root;
+    private final Object[] tail;    // the last elements, not in the trie; exactly size - tailOffset() long
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the empty vector.
+     *
+     * @param <E> the type of the elements
+     * @return the empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Returns a vector holding the given elements, in order.
+     *
+     * @param elements the elements
+     * @param <E>      the type of the elements
+     * @return the vector
+     */
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        Builder<E> builder = new Builder<>();
+        for (E element : elements)
+            builder.add(element);
+        return builder.build();
+    }
+
+    /**
+     * Returns a vector holding the elements of a collection, in iteration order.
+     *
+     * @param c   the collection
+     * @param <E> the type of the elements
+     * @return the vector
+     */
+    public static <E> PersistentVector<E> copyOf(Collection<E> c) {
+        if (c instanceof PersistentVector)
+            return (PersistentVector<E>) c;
+        Builder<E> builder = new Builder<>();
+        for (E element : c)
+            builder.add(element);
+        return builder.build();
+    }
+
+    protected void checkIndex(int i, int n) throws ArrayIndexOutOfBoundsException {
+        if (i < 0 || i >= n)
+            throw new ArrayIndexOutOfBoundsException("Illegal index: " + i + ", size was " + n);
+    }
+
+    // index of the first element of the tail
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    // the leaf array holding index, the tail included; index must be in range
+    private static Object[] leafFor(int index, int size, int shift, Node root, Object[] tail) {
+        if (index >= tailOffset(size))
+            return tail;
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS)
+            node = (Node) node.array[(index >>> level) & MASK];
+        return node.array;
+    }
+
+    // a chain of nodes from level down to the leaf, whose only leaf is the given one
+    private static Node newPath(Object owner, int level, Node leaf) {
+        if (level == 0)
+            return leaf;
+        Object[] array = new Object[WIDTH];
+        array[0] = newPath(owner, level - BITS, leaf);
+        return new Node(owner, array);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        return (E) leafFor(index, size, shift, root, tail)[index & MASK];
+    }
+
+    /**
+     * Returns a new version of this vector with the element at index
+     * replaced. The path from the root to the element is copied, every other
+     * node is shared: O(log32 n).
+     *
+     * @param index   the position of the element to replace
+     * @param element the new element
+     * @return the new version
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     */
+    public PersistentVector<E> updated(int index, E element) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, updated(shift, root, index, element), tail);
+    }
+
+    private static Node updated(int level, Node node, int index, Object element) {
+        Object[] array = node.array.clone();
+        if (level == 0) {
+            array[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            array[child] = updated(level - BITS, (Node) array[child], index, element);
+        }
+        return new Node(null, array);
+    }
+
+    /**
+     * Returns a new version of this vector with the element appended. Only
+     * the tail is copied, and once every 32 appends the full tail is pushed
+     * into the trie along a new path: O(1) amortized, O(log32 n) at worst.
+     *
+     * @param element the element to append
+     * @return the new version
+     */
+    public PersistentVector<E> appended(E element) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = new Object[tail.length + 1];
+            System.arraycopy(tail, 0, newTail, 0, tail.length);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        Node leaf = new Node(null, tail);
+        Node newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {   // the trie is full: grow a level
+            Object[] array = new Object[WIDTH];
+            array[0] = root;
+            array[1] = newPath(null, shift, leaf);
+            newRoot = new Node(null, array);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(null, size, shift, root, leaf);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { element });
+    }
+
+    // a copy of the path of node where the leaf of the elements [size - 32, size) goes, holding it;
+    // nodes owned by owner are updated in place instead
+    private static Node pushTail(Object owner, int size, int level, Node node, Node leaf) {
+        Node result = (owner != null && node.owner == owner) ? node : new Node(owner, node.array.clone());
+        int child = ((size - 1) >>> level) & MASK;
+        Object inserted;
+        if (level == BITS) {
+            inserted = leaf;
+        } else {
+            Node next = (Node) node.array[child];
+            inserted = (next != null) ? pushTail(owner, size, level - BITS, next, leaf) : newPath(owner, level - BITS, leaf);
+        }
+        result.array[child] = inserted;
+        return result;
+    }
+
+    /**
+     * Returns a new version of this vector without its last element:
+     * O(1) amortized, O(log32 n) at worst.
+     *
+     * @return the new version
+     * @throws NoSuchElementException if the vector is empty
+     */
+    public PersistentVector<E> removedLast() throws NoSuchElementException {
+        if (size == 0)
+            throw new NoSuchElementException("Empty vector");
+        if (size == 1)
+            return empty();
+        if (size - tailOffset(size) > 1) {
+            Object[] newTail = new Object[tail.length - 1];
+            System.arraycopy(tail, 0, newTail, 0, newTail.length);
+            return new PersistentVector<>(size - 1, shift, root, newTail);
+        }
+        // the tail becomes empty: the last leaf of the trie becomes the tail
+        Object[] newTail = leafFor(size - 2, size, shift, root, tail);
+        Node newRoot = popTail(null, size, shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        } else if (shift > BITS && newRoot.array[1] == null) {     // a single child: drop a level
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    // a copy of the path of node without the last leaf, null if nothing is left
+    private static Node popTail(Object owner, int size, int level, Node node) {
+        int child = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Node newChild = popTail(owner, size, level - BITS, (Node) node.array[child]);
+            if (newChild == null && child == 0)
+                return null;
+            Node result = (owner != null && node.owner == owner) ? node : new Node(owner, node.array.clone());
+            result.array[child] = newChild;
+            return result;
+        }
+        if (child == 0)
+            return null;
+        Node result = (owner != null && node.owner == owner) ? node : new Node(owner, node.array.clone());
+        result.array[child] = null;
+        return result;
+    }
+
+    /**
+     * Returns a builder holding the elements of this vector, to change it in
+     * bulk. The vector itself is not affected.
+     *
+     * @return a new builder
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    @Override
+    public int indexOf(E o) {
+        for (int i = 0; i < size; i += WIDTH) {
+            Object[] leaf = leafFor(i, size, shift, root, tail);
+            int n = Math.min(WIDTH, size - i);
+            for (int j = 0; j < n; j++) {
+                if (Objects.equals(leaf[j], o)) {
+                    return i + j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(E o) {
+        for (int i = tailOffset(size); i >= 0 && size > 0; i -= WIDTH) {
+            Object[] leaf = leafFor(i, size, shift, root, tail);
+            for (int j = Math.min(WIDTH, size - i) - 1; j >= 0; j--) {
+                if (Objects.equals(leaf[j], o)) {
+                    return i + j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(E o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<E> c) {
+        for (E o : c.toArray()) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E[] toArray() {
+        return toArray((E[]) new Object[size]);
+    }
+
+    @Override
+    public E[] toArray(E[] a) {
+        if (a.length < size) {
+            return toArray();
+        }
+        for (int i = 0; i < size; i += WIDTH)
+            System.arraycopy(leafFor(i, size, shift, root, tail), 0, a, i, Math.min(WIDTH, size - i));
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Returns a vector holding the elements in [fromIndex, toIndex). Since
+     * vectors are immutable the result can be independent of this one: it
+     * is built by copying the k elements of the range, O(k).
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @return the vector of the range
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), size was " + size);
+        if (fromIndex == 0 && toIndex == size)
+            return this;
+        Builder<E> builder = new Builder<>();
+        for (int i = fromIndex; i < toIndex; i++)
+            builder.add(get(i));
+        return builder.build();
+    }
+
+    /**
+     * Compares this vector with another list element by element.
+     *
+     * @param o the object to compare with
+     * @return true if o is a List holding equal elements in the same order
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof List))
+            return false;
+        List<?> other = (List<?>) o;
+        if (other.size() != size)
+            return false;
+        Iterator<?> it = other.iterator();
+        for (E element : this) {
+            if (!Objects.equals(element, it.next()))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (E element : this)
+            hash = 31 * hash + Objects.hashCode(element);
+        return hash;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new VectorIterator(0);
+    }
+
+    @Override
+    public Iterable<E> listIterator() {
+        return new VectorIterator(0);
+    }
+
+    @Override
+    public Iterable<E> listIterator(int index) {
+        checkIndex(index, size + 1);
+        return new VectorIterator(index);
+    }
+
+    /**
+     * A read-only list iterator. It keeps the current leaf, so moving to the
+     * next or previous element reads the trie only once every 32 elements.
+     */
+    private class VectorIterator implements ListIterator<E>, Iterator<E> {
+        private int currentIndex;
+        private Object[] leaf = null;
+        private int leafStart = -1;
+
+        VectorIterator(int index) {
+            currentIndex = index;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E elementAt(int index) {
+            int start = index & ~MASK;
+            if (start != leafStart) {
+                leaf = leafFor(index, size, shift, root, tail);
+                leafStart = start;
+            }
+            return (E) leaf[index & MASK];
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < size;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return elementAt(currentIndex++);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return currentIndex > 0;
+        }
+
+        @Override
+        public E previous() throws NoSuchElementException {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return elementAt(--currentIndex);
+        }
+
+        @Override
+        public int nextIndex() {
+            return currentIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return currentIndex - 1;
+        }
+
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException("PersistentVector is immutable");
+        }
+
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException("PersistentVector is immutable");
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new VectorIterator(0);
+        }
+    }
+
+    // mutators of List: a vector is immutable, the new versions are returned by updated, appended and removedLast
+
+    @Override
+    public boolean add(E o) {
+        throw new UnsupportedOperationException("PersistentVector is immutable: use appended");
+    }
+
+    @Override
+    public void add(int index, E element) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    @Override
+    public boolean addAll(Collection<E> c) {
+        throw new UnsupportedOperationException("PersistentVector is immutable: use a Builder");
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<E> c) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("PersistentVector is immutable: use empty");
+    }
+
+    @Override
+    public E set(int index, E element) {
+        throw new UnsupportedOperationException("PersistentVector is immutable: use updated");
+    }
+
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    @Override
+    public boolean remove(E o) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    @Override
+    public boolean removeAll(Collection<E> c) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    @Override
+    public boolean retainAll(Collection<E> c) {
+        throw new UnsupportedOperationException("PersistentVector is immutable");
+    }
+
+    /**
+     * The transient form of a vector: a mutable list of elements that
+     * updates in place the nodes it owns, to build a vector or change one
+     * in bulk without creating intermediate versions. It is not thread-safe.
+     *
+     * @param <E> the type of the elements
+     */
+    public static final class Builder<E> {
+        private Object owner = new Object();    // identity of the nodes this builder may update in place
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;                  // always WIDTH long, owned by the builder
+
+        public Builder() {
+            this(PersistentVector.<E>empty());
+        }
+
+        private Builder(PersistentVector<E> vector) {
+            size = vector.size;
+            shift = vector.shift;
+            root = vector.root;
+            tail = new Object[WIDTH];
+            System.arraycopy(vector.tail, 0, tail, 0, vector.tail.length);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // node itself if this builder owns it, otherwise a copy owned by this builder
+        private Node editable(Node node) {
+            return (node.owner == owner) ? node : new Node(owner, node.array.clone());
+        }
+
+        @SuppressWarnings("unchecked")
+        public E get(int index) throws ArrayIndexOutOfBoundsException {
+            if (index < 0 || index >= size)
+                throw new ArrayIndexOutOfBoundsException("Illegal index: " + index + ", size was " + size);
+            return (E) leafFor(index, size, shift, root, tail)[index & MASK];
+        }
+
+        /**
+         * Appends an element: O(1) amortized, nodes owned by the builder are
+         * not copied.
+         *
+         * @param element the element to append
+         * @return this builder
+         */
+        public Builder<E> add(E element) {
+            int tailSize = size - tailOffset(size);
+            if (tailSize < WIDTH) {
+                tail[tailSize] = element;
+                size++;
+                return this;
+            }
+            Node leaf = new Node(owner, tail);
+            if ((size >>> BITS) > (1 << shift)) {   // the trie is full: grow a level
+                Object[] array = new Object[WIDTH];
+                array[0] = root;
+                array[1] = newPath(owner, shift, leaf);
+                root = new Node(owner, array);
+                shift += BITS;
+            } else {
+                root = pushTail(owner, size, shift, root, leaf);
+            }
+            tail = new Object[WIDTH];
+            tail[0] = element;
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds every element of a collection, in iteration order.
+         *
+         * @param c the elements to add
+         * @return this builder
+         */
+        public Builder<E> addAll(Collection<E> c) {
+            for (E element : c)
+                add(element);
+            return this;
+        }
+
+        /**
+         * Replaces the element at index: only the nodes of its path not yet
+         * owned by the builder are copied.
+         *
+         * @param index   the position of the element to replace
+         * @param element the new element
+         * @return the element previously at index
+         * @throws ArrayIndexOutOfBoundsException if the index is out of range
+         */
+        @SuppressWarnings("unchecked")
+        public E set(int index, E element) throws ArrayIndexOutOfBoundsException {
+            E old = get(index);
+            if (index >= tailOffset(size)) {
+                tail[index & MASK] = element;
+                return old;
+            }
+            root = editable(root);
+            Node node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int child = (index >>> level) & MASK;
+                Node next = editable((Node) node.array[child]);
+                node.array[child] = next;
+                node = next;
+            }
+            node.array[index & MASK] = element;
+            return old;
+        }
+
+        /**
+         * Removes the last element.
+         *
+         * @return the removed element
+         * @throws NoSuchElementException if the builder is empty
+         */
+        public E removeLast() throws NoSuchElementException {
+            if (size == 0)
+                throw new NoSuchElementException("Empty builder");
+            E last = get(size - 1);
+            int tailSize = size - tailOffset(size);
+            if (size == 1 || tailSize > 1) {
+                tail[tailSize - 1] = null;
+                size--;
+                return last;
+            }
+            // the tail becomes empty: the last leaf of the trie becomes the tail
+            Object[] newTail = new Object[WIDTH];
+            System.arraycopy(leafFor(size - 2, size, shift, root, tail), 0, newTail, 0, WIDTH);
+            Node newRoot = popTail(owner, size, shift, root);
+            if (newRoot == null) {
+                newRoot = EMPTY_NODE;
+            } else if (shift > BITS && newRoot.array[1] == null) {
+                newRoot = (Node) newRoot.array[0];
+                shift -= BITS;
+            }
+            root = newRoot;
+            tail = newTail;
+            size--;
+            return last;
+        }
+
+        /**
+         * Publishes the contents of the builder as a vector, in O(1): the
+         * vector takes the nodes of the builder, which gives up their
+         * ownership and copies them again if it is changed afterwards.
+         *
+         * @return the vector
+         */
+        public PersistentVector<E> build() {
+            if (size == 0)
+                return empty();
+            owner = new Object();   // the nodes built so far now belong to the vector
+            int tailSize = size - tailOffset(size);
+            Object[] vectorTail = new Object[tailSize];
+            System.arraycopy(tail, 0, vectorTail, 0, tailSize);
+            return new PersistentVector<>(size, shift, root, vectorTail);
+        }
+    }
+}
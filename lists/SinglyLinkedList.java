@@ -1,15 +1,23 @@
 package lists;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
 /**
  * The SinglyLinkedList<E> class provides efficient O(1) operations for adding or removing elements 
  * at the beginning or end, but requires O(n) time for accessing or searching elements. Unlike circular or 
  * doubly linked lists, it lacks backward traversal capability and can complicate operations like removing 
  * the last element. While memory-efficient due to storing only a single reference per node, this design 
  * choice may be less optimal for applications needing more flexible or bidirectional navigation.
+ * Its iterator is a fail-fast cursor over the nodes: a structural change not made through the iterator
+ * is detected by a modification counter.
  *
  * @param <E> the type of elements held in this list
  */
-public class SinglyLinkedList<E> {
+public class SinglyLinkedList<E> implements Iterable<E> {
 
     // Private static nested class to represent nodes in the list
     private static class Node<E> {
@@ -38,6 +46,7 @@ public class SinglyLinkedList<E> {
     private Node<E> head = null;
     private Node<E> tail = null;
     private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the iterators
 
     // Default constructor
     public SinglyLinkedList() {}
@@ -90,6 +99,7 @@ public class SinglyLinkedList<E> {
         if (size == 0)
             tail = head;
         size++;
+        modCount++;
     }
 
     /**
@@ -106,6 +116,7 @@ public class SinglyLinkedList<E> {
         }
         tail = newest;
         size++;
+        modCount++;
     }
 
     /**
@@ -118,6 +129,7 @@ public class SinglyLinkedList<E> {
         E element = head.getElement();
         head = head.getNext();
         size--;
+        modCount++;
         if (isEmpty())
             tail = null;  // Avoid memory leaks
         return element;
@@ -170,4 +182,81 @@ public class SinglyLinkedList<E> {
         // at this point no more elements can be scanned, and no difference was met
         return true;
     }
+
+    /**
+     * Returns an iterator over the elements, from the first to the last.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new ElementIterator();
+    }
+
+    /**
+     * A fail-fast cursor over the nodes. Removal unlinks the node returned
+     * last, whose predecessor the cursor keeps, in O(1).
+     */
+    private class ElementIterator implements Iterator<E> {
+        private Node<E> cursor = head;      // node of the next element
+        private Node<E> recent = null;      // node before cursor, the one returned last unless removed
+        private Node<E> beforeRecent = null;
+        private boolean removable = false;
+        private int expectedModCount = modCount;
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean hasNext() {
+            return cursor != null;
+        }
+
+        public E next() throws NoSuchElementException {
+            checkModCount();
+            if (cursor == null)
+                throw new NoSuchElementException();
+            beforeRecent = recent;
+            recent = cursor;
+            cursor = cursor.getNext();
+            removable = true;
+            return recent.getElement();
+        }
+
+        public void remove() throws IllegalStateException {
+            if (!removable)
+                throw new IllegalStateException("Nothing to remove");
+            checkModCount();
+            if (beforeRecent == null)
+                head = cursor;
+            else
+                beforeRecent.setNext(cursor);
+            if (recent == tail)
+                tail = beforeRecent;
+            recent = beforeRecent;  // the node before cursor again
+            size--;
+            expectedModCount = ++modCount;
+            removable = false;
+        }
+
+        /**
+         * Performs the action on each remaining element in a single loop over
+         * the nodes, checking for modifications once per element.
+         *
+         * @param action the action to perform
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            while (cursor != null && modCount == expectedModCount) {
+                beforeRecent = recent;
+                recent = cursor;
+                cursor = cursor.getNext();
+                removable = true;
+                action.accept(recent.getElement());
+            }
+            checkModCount();
+        }
+    }
 }
@@ -0,0 +1,939 @@
+package lists;
+
+/*  An unrolled linked list: a doubly linked list of nodes, each holding a small array of up to nodeCapacity
+    (B) elements. Every node but the last is kept at least half full: a full node is split in two halves
+    before an insertion, and a node falling below half full after a removal borrows elements from its
+    successor, or is merged with it when they fit together in one node.
+    get(int index) and set(int index, E element) walk whole nodes, from the head, the tail or the node of the
+    previous access (the finger), whichever is closest: O(n/B), and O(1) when the index is close to the
+    previous one, as in a scan by index or a run of insertions at consecutive positions. add(int index, E
+    element) and remove(int index) shift at most B elements inside one node, plus the walk: O(B + n/B),
+    which is O(sqrt n) with B near sqrt n, against the O(n) shift of ArrayList. add(E o) is O(1).
+    Elements are stored B at a time in contiguous arrays, so iteration touches one node per B elements
+    instead of one node per element as DoublyLinkedList does, and the memory overhead is one node header and
+    two links per node instead of per element, with at most half of every node's array unused.
+    removeAll, retainAll and removeIf compact the affected nodes in a single pass: O(n). */
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class UnrolledLinkedList<E> implements List<E> {
+
+    public static final int NODE_CAPACITY = 64; // Default number of elements per node
+
+    private static class Node {
+        final Object[] elements;
+        int count = 0;
+        Node prev;
+        Node next;
+
+        Node(int capacity) {
+            elements = new Object[capacity];
+        }
+    }
+
+    private final int nodeCapacity;
+    private Node head = null;
+    private Node tail = null;
+    private int size = 0;
+    private int modCount = 0;   // structural modifications, checked by the iterators and the subList views
+    private Node finger = null; // node of the last access by index, null if the list is empty
+    private int fingerStart;    // index of the first element of finger
+
+    public UnrolledLinkedList() {
+        this(NODE_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list whose nodes hold up to nodeCapacity elements.
+     *
+     * @param nodeCapacity the number of elements per node
+     * @throws IllegalArgumentException if nodeCapacity is less than 2
+     */
+    public UnrolledLinkedList(int nodeCapacity) throws IllegalArgumentException {
+        if (nodeCapacity < 2)
+            throw new IllegalArgumentException("Node capacity must be at least 2");
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    protected void checkIndex(int i, int n) throws ArrayIndexOutOfBoundsException {
+        if (i < 0 || i >= n)
+            throw new ArrayIndexOutOfBoundsException("Illegal index: " + i + ", size was " + n);
+    }
+
+    private static void checkRange(int fromIndex, int toIndex, int n) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > n || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), size was " + n);
+    }
+
+    // finds the node holding index (the tail for index == size), starting from the closest of head, tail and
+    // finger, and makes it the finger; the list must not be empty
+    private Node locate(int index) {
+        Node node;
+        int start;
+        int fromFinger = Math.abs(index - fingerStart);
+        if (fromFinger <= index && fromFinger <= size - index) {
+            node = finger;
+            start = fingerStart;
+        } else if (index <= size - index) {
+            node = head;
+            start = 0;
+        } else {
+            node = tail;
+            start = size - tail.count;
+        }
+        while (index >= start + node.count && node.next != null) {
+            start += node.count;
+            node = node.next;
+        }
+        while (index < start) {
+            node = node.prev;
+            start -= node.count;
+        }
+        finger = node;
+        fingerStart = start;
+        return node;
+    }
+
+    private void linkAfter(Node node, Node newNode) {
+        newNode.prev = node;
+        newNode.next = node.next;
+        if (node.next != null)
+            node.next.prev = newNode;
+        else
+            tail = newNode;
+        node.next = newNode;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null)
+            node.prev.next = node.next;
+        else
+            head = node.next;
+        if (node.next != null)
+            node.next.prev = node.prev;
+        else
+            tail = node.prev;
+        if (finger == node) {
+            finger = head;
+            fingerStart = 0;
+        }
+    }
+
+    // moves the elements [keep, count) of node to a new node linked after it, and returns the new node
+    private Node split(Node node, int keep) {
+        Node newNode = new Node(nodeCapacity);
+        int moved = node.count - keep;
+        System.arraycopy(node.elements, keep, newNode.elements, 0, moved);
+        Arrays.fill(node.elements, keep, node.count, null);
+        newNode.count = moved;
+        node.count = keep;
+        linkAfter(node, newNode);
+        return newNode;
+    }
+
+    // keeps every node but the last at least half full: an underfull node merges with its successor if they
+    // fit in one node, otherwise it borrows elements from it; an empty last node is unlinked
+    private void rebalance(Node node) {
+        if (node.count >= nodeCapacity / 2)
+            return;
+        Node next = node.next;
+        if (next == null) {
+            if (node.count == 0)
+                unlink(node);
+            return;
+        }
+        if (node.count + next.count <= nodeCapacity) {
+            System.arraycopy(next.elements, 0, node.elements, node.count, next.count);
+            node.count += next.count;
+            unlink(next);
+        } else {
+            int moved = (next.count - node.count) / 2;
+            System.arraycopy(next.elements, 0, node.elements, node.count, moved);
+            System.arraycopy(next.elements, moved, next.elements, 0, next.count - moved);
+            Arrays.fill(next.elements, next.count - moved, next.count, null);
+            node.count += moved;
+            next.count -= moved;
+        }
+    }
+
+    @Override
+    public boolean add(E o) {
+        if (tail == null || tail.count == nodeCapacity) {
+            Node node = new Node(nodeCapacity);
+            if (tail == null) {
+                head = tail = finger = node;
+                fingerStart = 0;
+            } else {
+                linkAfter(tail, node);  // the old tail stays full
+            }
+        }
+        tail.elements[tail.count++] = o;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size + 1);
+        if (index == size) {
+            add(element);
+            return;
+        }
+        Node node = locate(index);
+        int offset = index - fingerStart;
+        if (node.count == nodeCapacity) {
+            Node newNode = split(node, nodeCapacity / 2);
+            if (offset > node.count) {
+                offset -= node.count;
+                fingerStart += node.count;
+                node = finger = newNode;
+            }
+        }
+        System.arraycopy(node.elements, offset, node.elements, offset + 1, node.count - offset);
+        node.elements[offset] = element;
+        node.count++;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<E> c) {
+        Object[] elements = c.toArray();
+        for (Object element : elements) {
+            if (tail == null || tail.count == nodeCapacity) {
+                Node node = new Node(nodeCapacity);
+                if (tail == null) {
+                    head = tail = finger = node;
+                    fingerStart = 0;
+                } else {
+                    linkAfter(tail, node);
+                }
+            }
+            tail.elements[tail.count++] = element;
+        }
+        size += elements.length;
+        if (elements.length > 0)
+            modCount++;
+        return elements.length > 0;
+    }
+
+    /**
+     * Inserts the elements of a collection at the specified position. The
+     * node holding the position is split there and the elements fill full
+     * nodes in between: O(k + n/B) for k elements, whatever the position.
+     *
+     * @param index the position of the first inserted element
+     * @param c     the elements to insert
+     * @return true if the list was modified
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public boolean addAll(int index, Collection<E> c) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size + 1);
+        if (index == size)
+            return addAll(c);
+        Object[] elements = c.toArray(); // A snapshot, also safe when c is this list
+        if (elements.length == 0)
+            return false;
+        Node node = locate(index);
+        Node suffix = split(node, index - fingerStart);
+        Node last = node;
+        for (Object element : elements) {
+            if (last.count == nodeCapacity) {
+                Node newNode = new Node(nodeCapacity);
+                linkAfter(last, newNode);
+                last = newNode;
+            }
+            last.elements[last.count++] = element;
+        }
+        size += elements.length;
+        modCount++;
+        // every filled node is full except last; the suffix may be underfull too
+        rebalance(last);
+        if (last.next == suffix)
+            rebalance(suffix);
+        return true;
+    }
+
+    @Override
+    public boolean contains(E o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<E> c) {
+        for (E o : c.toArray()) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        head = tail = finger = null;    // the nodes are garbage collected together
+        fingerStart = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        Node node = locate(index);
+        return (E) node.elements[index - fingerStart];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E set(int index, E element) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        Node node = locate(index);
+        E oldElement = (E) node.elements[index - fingerStart];
+        node.elements[index - fingerStart] = element;
+        return oldElement;
+    }
+
+    @Override
+    public int indexOf(E o) {
+        int start = 0;
+        for (Node node = head; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                if (Objects.equals(node.elements[i], o)) {
+                    return start + i;
+                }
+            }
+            start += node.count;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(E o) {
+        int start = size;
+        for (Node node = tail; node != null; node = node.prev) {
+            start -= node.count;
+            for (int i = node.count - 1; i >= 0; i--) {
+                if (Objects.equals(node.elements[i], o)) {
+                    return start + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E remove(int index) throws ArrayIndexOutOfBoundsException {
+        checkIndex(index, size);
+        Node node = locate(index);
+        int offset = index - fingerStart;
+        E removedElement = (E) node.elements[offset];
+        System.arraycopy(node.elements, offset + 1, node.elements, offset, node.count - offset - 1);
+        node.elements[--node.count] = null;
+        size--;
+        modCount++;
+        rebalance(node);
+        return removedElement;
+    }
+
+    @Override
+    public boolean remove(E o) {
+        int index = indexOf(o);
+        if (index >= 0) {
+            remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(Collection<E> c) {
+        return removeIf(e -> c.contains(e));
+    }
+
+    @Override
+    public boolean retainAll(Collection<E> c) throws ArrayIndexOutOfBoundsException {
+        return removeIf(e -> !c.contains(e));
+    }
+
+    /**
+     * Removes every element matching the filter. The kept elements are
+     * packed into full nodes in a single pass, so the filter is called once
+     * per element and every kept element moves at most once: O(n).
+     *
+     * @param filter the condition for removal
+     * @return true if any element was removed
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        return removeIf(0, size, filter) > 0;
+    }
+
+    // packs the kept elements of the nodes overlapping [from, to) into full nodes, from the first of them on,
+    // and unlinks the nodes left empty; returns the number of elements removed
+    @SuppressWarnings("unchecked")
+    private int removeIf(int from, int to, Predicate<? super E> filter) {
+        if (from == to)
+            return 0;
+        Node read = locate(from);
+        int readStart = fingerStart;
+        Node write = read;
+        int writeStart = readStart;
+        int written = 0;    // elements written into write; write never gets ahead of read
+        int removed = 0;
+        while (read != null && readStart < to) {
+            Node next = read.next;
+            for (int i = 0; i < read.count; i++) {
+                Object element = read.elements[i];
+                int index = readStart + i;
+                if (index >= from && index < to && filter.test((E) element)) {
+                    removed++;
+                    continue;
+                }
+                if (removed == 0) {     // nothing removed yet: the element stays where it is
+                    write = read;
+                    writeStart = readStart;
+                    written = i + 1;
+                    continue;
+                }
+                if (written == nodeCapacity) {
+                    write.count = nodeCapacity;
+                    writeStart += nodeCapacity;
+                    write = write.next;
+                    written = 0;
+                }
+                write.elements[written++] = element;
+            }
+            readStart += read.count;
+            read = next;
+        }
+        if (removed == 0)
+            return 0;
+        if (written < write.count)
+            Arrays.fill(write.elements, written, write.count, null);
+        write.count = written;
+        write.next = read;      // the nodes between write and read are left empty
+        if (read != null)
+            read.prev = write;
+        else
+            tail = write;
+        finger = write;
+        fingerStart = writeStart;
+        size -= removed;
+        modCount++;
+        rebalance(write);
+        return removed;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E[] toArray() {
+        E[] arrayCopy = (E[]) new Object[size];
+        return toArray(arrayCopy);
+    }
+
+    @Override
+    public E[] toArray(E[] a) {
+        if (a.length < size) {
+            return toArray();
+        }
+        int start = 0;
+        for (Node node = head; node != null; node = node.next) {
+            System.arraycopy(node.elements, 0, a, start, node.count);
+            start += node.count;
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Returns a view of the elements in [fromIndex, toIndex), backed by this
+     * list: reads and writes go to the same nodes, and structural changes
+     * made through the view (add, remove, clear) are applied to this list.
+     * A structural change made to this list, or to another view, invalidates
+     * the view: its next use throws ConcurrentModificationException.
+     *
+     * @param fromIndex the first index of the view, inclusive
+     * @param toIndex   the last index of the view, exclusive
+     * @return the view
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        checkRange(fromIndex, toIndex, size);
+        return new SubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new UnrolledIterator(0);
+    }
+
+    @Override
+    public Iterable<E> listIterator() {
+        return new UnrolledIterator(0);
+    }
+
+    @Override
+    public Iterable<E> listIterator(int index) {
+        checkIndex(index, size + 1);
+        return new UnrolledIterator(index);
+    }
+
+    /**
+     * A list iterator walking the nodes: moving to the next or previous
+     * element is O(1). It is fail-fast: a structural change not made
+     * through the iterator makes its next use throw
+     * ConcurrentModificationException.
+     */
+    private class UnrolledIterator implements ListIterator<E>, Iterator<E> {
+        private Node node = null;   // node of the last element accessed, null to locate it again
+        private int nodeStart;
+        private int currentIndex;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        UnrolledIterator(int index) {
+            currentIndex = index;
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @SuppressWarnings("unchecked")
+        private E elementAt(int index) {
+            if (node == null || index < nodeStart || index >= nodeStart + node.count) {
+                if (node != null && index == nodeStart + node.count && node.next != null) {
+                    nodeStart += node.count;
+                    node = node.next;
+                } else if (node != null && index == nodeStart - 1 && node.prev != null) {
+                    node = node.prev;
+                    nodeStart -= node.count;
+                } else {
+                    node = locate(index);
+                    nodeStart = fingerStart;
+                }
+            }
+            return (E) node.elements[index - nodeStart];
+        }
+
+        @Override
+        public boolean hasNext() {
+            return currentIndex < size;
+        }
+
+        @Override
+        public E next() throws NoSuchElementException {
+            checkModCount();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = currentIndex;
+            return elementAt(currentIndex++);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return currentIndex > 0;
+        }
+
+        @Override
+        public E previous() throws NoSuchElementException {
+            checkModCount();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = --currentIndex;
+            return elementAt(currentIndex);
+        }
+
+        @Override
+        public int nextIndex() {
+            return currentIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return currentIndex - 1;
+        }
+
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned < 0)
+                throw new IllegalStateException("No item to remove");
+            checkModCount();
+            UnrolledLinkedList.this.remove(lastReturned);
+            currentIndex = lastReturned;
+            lastReturned = -1;
+            node = null;    // nodes may have been merged
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastReturned < 0)
+                throw new IllegalStateException("No item to set");
+            checkModCount();
+            UnrolledLinkedList.this.set(lastReturned, e);
+        }
+
+        @Override
+        public void add(E e) {
+            checkModCount();
+            UnrolledLinkedList.this.add(currentIndex++, e);
+            lastReturned = -1;
+            node = null;    // nodes may have been split
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Performs the action on each remaining element, with a plain loop
+         * over the array of each node.
+         *
+         * @param action the action to perform
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            checkModCount();
+            if (currentIndex >= size)
+                return;
+            elementAt(currentIndex);    // positions node on the next element
+            int offset = currentIndex - nodeStart;
+            while (node != null && modCount == expectedModCount) {
+                Object[] elements = node.elements;
+                int count = node.count;
+                for (int i = offset; i < count && modCount == expectedModCount; i++) {
+                    action.accept((E) elements[i]);
+                    lastReturned = currentIndex++;
+                }
+                if (node.next == null || modCount != expectedModCount)
+                    break;
+                nodeStart += count;
+                node = node.next;
+                offset = 0;
+            }
+            checkModCount();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new UnrolledIterator(0);
+        }
+    }
+
+    /**
+     * A view of a range of the list: an offset and a size over the list.
+     * Accesses by index go through the list, whose finger makes a scan of
+     * the view O(1) per element; structural changes go through the list and
+     * then update the sizes of this view and of the views it was taken from.
+     */
+    private class SubList implements List<E> {
+        private final SubList parent;   // the view this one was taken from, null if taken from the list
+        private final int offset;       // index in the list of the first element of the view
+        private int size;
+        private int expectedModCount;
+
+        SubList(SubList parent, int offset, int size) {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        private void checkModCount() throws ConcurrentModificationException {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        // after a structural change made through this view, fixes the sizes of the chain of views
+        private void updateSize(int delta) {
+            for (SubList view = this; view != null; view = view.parent) {
+                view.size += delta;
+                view.expectedModCount = modCount;
+            }
+        }
+
+        @Override
+        public int size() {
+            checkModCount();
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public E get(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            return UnrolledLinkedList.this.get(offset + index);
+        }
+
+        @Override
+        public E set(int index, E element) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            return UnrolledLinkedList.this.set(offset + index, element);
+        }
+
+        @Override
+        public boolean add(E o) {
+            add(size(), o);
+            return true;
+        }
+
+        @Override
+        public void add(int index, E element) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size + 1);
+            UnrolledLinkedList.this.add(offset + index, element);
+            updateSize(1);
+        }
+
+        @Override
+        public boolean addAll(Collection<E> c) {
+            return addAll(size(), c);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<E> c) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size + 1);
+            int before = UnrolledLinkedList.this.size;
+            boolean modified = UnrolledLinkedList.this.addAll(offset + index, c);
+            if (modified)
+                updateSize(UnrolledLinkedList.this.size - before);
+            return modified;
+        }
+
+        @Override
+        public E remove(int index) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkIndex(index, size);
+            E removedElement = UnrolledLinkedList.this.remove(offset + index);
+            updateSize(-1);
+            return removedElement;
+        }
+
+        @Override
+        public boolean remove(E o) {
+            int index = indexOf(o);
+            if (index < 0)
+                return false;
+            remove(index);
+            return true;
+        }
+
+        @Override
+        public boolean removeAll(Collection<E> c) {
+            return removeIf(e -> c.contains(e));
+        }
+
+        @Override
+        public boolean retainAll(Collection<E> c) {
+            return removeIf(e -> !c.contains(e));
+        }
+
+        /**
+         * Removes every element of the view matching the filter, in a single
+         * compacting pass over the nodes of the range.
+         *
+         * @param filter the condition for removal
+         * @return true if any element was removed
+         */
+        public boolean removeIf(Predicate<? super E> filter) {
+            checkModCount();
+            int removed = UnrolledLinkedList.this.removeIf(offset, offset + size, filter);
+            if (removed == 0)
+                return false;
+            updateSize(-removed);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            removeIf(e -> true);
+        }
+
+        @Override
+        public int indexOf(E o) {
+            checkModCount();
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(UnrolledLinkedList.this.get(offset + i), o)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int lastIndexOf(E o) {
+            checkModCount();
+            for (int i = size - 1; i >= 0; i--) {
+                if (Objects.equals(UnrolledLinkedList.this.get(offset + i), o)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean contains(E o) {
+            return indexOf(o) >= 0;
+        }
+
+        @Override
+        public boolean containsAll(Collection<E> c) {
+            for (E o : c.toArray()) {
+                if (!contains(o)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E[] toArray() {
+            return toArray((E[]) new Object[size()]);
+        }
+
+        @Override
+        public E[] toArray(E[] a) {
+            checkModCount();
+            if (a.length < size) {
+                return toArray();
+            }
+            for (int i = 0; i < size; i++)
+                a[i] = UnrolledLinkedList.this.get(offset + i);
+            if (a.length > size) {
+                a[size] = null;
+            }
+            return a;
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+            checkModCount();
+            checkRange(fromIndex, toIndex, size);
+            return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator() {
+            return new SubListIterator(0);
+        }
+
+        @Override
+        public Iterable<E> listIterator(int index) {
+            checkIndex(index, size() + 1);
+            return new SubListIterator(index);
+        }
+
+        private class SubListIterator implements ListIterator<E>, Iterator<E> {
+            private int currentIndex;
+            private int lastReturned = -1;
+
+            SubListIterator(int index) {
+                currentIndex = index;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < size();
+            }
+
+            @Override
+            public E next() throws NoSuchElementException {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = currentIndex;
+                return get(currentIndex++);
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return currentIndex > 0;
+            }
+
+            @Override
+            public E previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = --currentIndex;
+                return get(currentIndex);
+            }
+
+            @Override
+            public int nextIndex() {
+                return currentIndex;
+            }
+
+            @Override
+            public int previousIndex() {
+                return currentIndex - 1;
+            }
+
+            @Override
+            public void remove() throws IllegalStateException {
+                if (lastReturned < 0)
+                    throw new IllegalStateException("No item to remove");
+                SubList.this.remove(lastReturned);
+                currentIndex = lastReturned;
+                lastReturned = -1;
+            }
+
+            @Override
+            public void set(E e) {
+                if (lastReturned < 0)
+                    throw new IllegalStateException("No item to set");
+                SubList.this.set(lastReturned, e);
+            }
+
+            @Override
+            public void add(E e) {
+                SubList.this.add(currentIndex++, e);
+                lastReturned = -1;
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new SubListIterator(0);
+            }
+        }
+    }
+}
@@ -59,6 +59,11 @@ public abstract class AbstractPQ<K,V> implements PriorityQueue<K,V> {
         return comp.compare(a.getKey(), b.getKey());
     }
 
+    /** Compares two keys using the comparator. */
+    protected int compareKeys(K a, K b) {
+        return comp.compare(a, b);
+    }
+
     /** Checks whether the key is valid by comparing it with itself. */
     protected boolean checkKey(K key) throws IllegalArgumentException {
         try {
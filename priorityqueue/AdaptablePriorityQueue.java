@@ -0,0 +1,12 @@
+package priorityqueue;
+
+/**
+ * Interface that defines an adaptable priority queue: a priority queue whose
+ * entries can be removed or updated after insertion, using the Entry returned
+ * by insert as a locator.
+ */
+public interface AdaptablePriorityQueue<K,V> extends PriorityQueue<K,V> {
+    void remove(Entry<K,V> entry) throws IllegalArgumentException;
+    void replaceKey(Entry<K,V> entry, K key) throws IllegalArgumentException;
+    void replaceValue(Entry<K,V> entry, V value) throws IllegalArgumentException;
+}
@@ -0,0 +1,121 @@
+package priorityqueue;
+
+import lists.ArrayList;
+
+/**
+ * An implementation of a monotone priority queue with integer keys using a radix heap.
+ *
+ * A radix heap is a bucket queue for workloads where keys never go below the
+ * last extracted minimum (event simulation, timers, Dijkstra with integer
+ * weights). Entries are spread over 65 buckets according to the highest bit
+ * in which their key differs from {@code last}, the last minimum observed:
+ * bucket 0 holds the keys equal to {@code last} and bucket i the keys whose
+ * highest differing bit is i-1. Every key in bucket i is smaller than every
+ * key in bucket i+1, so the minimum always lies in the first non-empty bucket.
+ *
+ * <p>When bucket 0 is empty, the first non-empty bucket is scanned for its
+ * minimum, which becomes the new {@code last}, and its entries are
+ * redistributed into strictly lower buckets. Each entry can move down at
+ * most 64 times during its life in the queue, which bounds the amortized cost.</p>
+ *
+ * <p>The time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code insert(Long key, V value)} - O(1) amortized: the entry is appended to its bucket.</li>
+ *   <li>{@code min()}, {@code removeMin()} - O(log C) amortized, not O(1), where C
+ *       is the range of the keys: every entry moves down at most log C &le; 64
+ *       buckets, independently of the number of entries in the queue. A single
+ *       call that redistributes a large bucket costs time linear in that bucket.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Unlike SortedLinkedPQ and UnsortedLinkedPQ, neither operation scales
+ * linearly with the size of the queue. The price is the monotonicity
+ * constraint: a key smaller than the last minimum returned by {@code min()}
+ * or {@code removeMin()} is rejected.</p>
+ *
+ * @param <V> the type of the values
+ */
+public class RadixHeapPQ<V> extends AbstractPQ<Long,V> {
+
+    private static final int BUCKETS = 65;
+
+    private ArrayList<Entry<Long,V>>[] buckets;
+    private long last = Long.MIN_VALUE;     // last minimum observed, lower bound of every key
+    private int size = 0;
+
+    public RadixHeapPQ() {
+        super();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArrayList<Entry<Long,V>>[] empty = new ArrayList[BUCKETS];
+        buckets = empty;
+    }
+
+    /** Returns the index of the bucket for the given key. */
+    private int bucket(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void addToBucket(Entry<Long,V> entry) {
+        int b = bucket(entry.getKey());
+        if (buckets[b] == null)
+            buckets[b] = new ArrayList<>();
+        buckets[b].add(entry);
+    }
+
+    /**
+     * Makes sure bucket 0 holds the minimum, redistributing the first
+     * non-empty bucket if necessary. Assumes the queue is not empty.
+     */
+    private void pull() {
+        if (buckets[0] != null && !buckets[0].isEmpty())
+            return;
+        int i = 1;
+        while (buckets[i] == null || buckets[i].isEmpty())
+            i++;
+        ArrayList<Entry<Long,V>> source = buckets[i];
+        long newLast = source.get(0).getKey();
+        for (int j = 1; j < source.size(); j++)
+            newLast = Math.min(newLast, source.get(j).getKey());
+        last = newLast;
+        while (!source.isEmpty())     // every entry lands in a bucket lower than i
+            addToBucket(source.remove(source.size() - 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Inserts a new entry.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return the newly created entry
+     * @throws IllegalArgumentException if the key is null or smaller than the last minimum observed
+     */
+    public Entry<Long,V> insert(Long key, V value) throws IllegalArgumentException {
+        if (key == null)
+            throw new IllegalArgumentException("Incompatible key");
+        if (key < last)
+            throw new IllegalArgumentException("Key " + key + " is smaller than the last minimum " + last);
+        Entry<Long,V> newest = new PQEntry<>(key, value);
+        addToBucket(newest);
+        size++;
+        return newest;
+    }
+
+    public Entry<Long,V> min() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        pull();
+        return buckets[0].get(buckets[0].size() - 1);
+    }
+
+    public Entry<Long,V> removeMin() throws EmptyPriorityQueueException {
+        if (size == 0)
+            throw new EmptyPriorityQueueException();
+        pull();
+        size--;
+        return buckets[0].remove(buckets[0].size() - 1);
+    }
+}
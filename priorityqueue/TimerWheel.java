@@ -0,0 +1,286 @@
+package priorityqueue;
+
+import heap.HeapPQ;
+import lists.ArrayList;
+
+/**
+ * A hierarchical timing wheel for scheduling large numbers of timeouts.
+ *
+ * Time is divided into ticks of {@code tickDuration} units. The wheel has
+ * {@code levels} rings of {@code 2^wheelBits} slots each: a slot of level 0
+ * covers one tick, a slot of level l covers {@code 2^(wheelBits*l)} ticks.
+ * A timeout is stored, in a doubly linked list, in the slot of the lowest
+ * level whose ring still reaches its deadline. Every time the ticks of a
+ * lower level wrap around, the current slot of the level above is cascaded:
+ * its timeouts are redistributed into lower levels, getting closer to level 0,
+ * where they expire when their tick is reached. Deadlines beyond the span of
+ * the wheel ({@code 2^(wheelBits*levels)} ticks) are kept in a HeapPQ overflow
+ * tier and moved into the wheel once they come within reach.
+ *
+ * <p>The time complexities of the key methods are as follows:
+ * <ul>
+ *   <li>{@code schedule(long deadline, V value)} - O(1), O(log m) for the m timeouts in the overflow tier</li>
+ *   <li>{@code cancel(Entry e)} - O(1): the timeout is unlinked from its slot, or
+ *       lazily discarded if it is in the overflow tier</li>
+ *   <li>{@code poll(long now)} - O(ticks elapsed + timeouts expired), plus at most
+ *       {@code levels} cascades per timeout over its whole life</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Timeouts never fire early: a timeout expires at the first tick boundary
+ * not before its deadline, so it may fire up to one tick late. All the timeouts
+ * expiring while the wheel advances are returned together by {@code poll}.
+ * The class is not thread-safe.</p>
+ *
+ * @param <V> the type of the values attached to the timeouts
+ */
+public class TimerWheel<V> {
+
+    /**
+     * A scheduled timeout: the handle returned by schedule. Its key is the deadline.
+     */
+    private static class Timeout<V> implements Entry<Long,V> {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final long deadline;
+        private final long deadlineTick;
+        private final V value;
+        private final TimerWheel<V> owner;
+        private int state = PENDING;
+        private int level = -1;     // -1 while in the overflow tier
+        private int slot;
+        private Timeout<V> prev;
+        private Timeout<V> next;
+
+        Timeout(long deadline, long deadlineTick, V value, TimerWheel<V> owner) {
+            this.deadline = deadline;
+            this.deadlineTick = deadlineTick;
+            this.value = value;
+            this.owner = owner;
+        }
+
+        public Long getKey() {
+            return deadline;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+
+    private final long tickDuration;
+    private final int wheelBits;
+    private final int mask;
+    private final Timeout<V>[][] slots;     // heads of the slot lists, per level
+    private final HeapPQ<Long,Timeout<V>> overflow = new HeapPQ<>();
+    private final long span;                // ticks covered by the wheel
+    private long currentTick;               // last tick processed
+    private int size = 0;
+    private int wheelCount = 0;             // pending timeouts stored in the wheel
+
+    /**
+     * Constructs a wheel with 4 levels of 256 slots, covering 2^32 ticks
+     * before the overflow tier is used.
+     *
+     * @param tickDuration the duration of a tick, in the same unit as deadlines
+     * @param startTime    the current time
+     * @throws IllegalArgumentException if tickDuration is not positive
+     */
+    public TimerWheel(long tickDuration, long startTime) throws IllegalArgumentException {
+        this(tickDuration, startTime, 8, 4);
+    }
+
+    /**
+     * Constructs a wheel with the given number of levels of 2^wheelBits slots.
+     *
+     * @param tickDuration the duration of a tick, in the same unit as deadlines
+     * @param startTime    the current time
+     * @param wheelBits    the base-2 logarithm of the number of slots per level
+     * @param levels       the number of levels
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public TimerWheel(long tickDuration, long startTime, int wheelBits, int levels) throws IllegalArgumentException {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be positive");
+        if (wheelBits < 1 || wheelBits > 16 || levels < 1 || wheelBits * levels > 62)
+            throw new IllegalArgumentException("Invalid wheel geometry");
+        this.tickDuration = tickDuration;
+        this.wheelBits = wheelBits;
+        mask = (1 << wheelBits) - 1;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Timeout<V>[][] rings = new Timeout[levels][1 << wheelBits];
+        slots = rings;
+        span = 1L << (wheelBits * levels);
+        currentTick = Math.floorDiv(startTime, tickDuration);
+    }
+
+    /**
+     * Returns the number of pending (scheduled, not expired nor cancelled) timeouts.
+     *
+     * @return the number of pending timeouts
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Schedules a timeout.
+     *
+     * @param deadline the time at which the timeout expires
+     * @param value    the value attached to the timeout
+     * @return the handle of the timeout, whose key is the deadline
+     */
+    public Entry<Long,V> schedule(long deadline, V value) {
+        long deadlineTick = -Math.floorDiv(-deadline, tickDuration);   // rounded up: never fire early
+        Timeout<V> timeout = new Timeout<>(deadline, deadlineTick, value, this);
+        place(timeout, null);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a pending timeout.
+     *
+     * @param entry the handle returned by schedule
+     * @return true if the timeout was pending, false if it had already expired or been cancelled
+     * @throws IllegalArgumentException if the entry was not returned by this wheel
+     */
+    public boolean cancel(Entry<Long,V> entry) throws IllegalArgumentException {
+        if (!(entry instanceof Timeout))
+            throw new IllegalArgumentException("Invalid entry");
+        Timeout<V> timeout = (Timeout<V>) entry;
+        if (timeout.owner != this)
+            throw new IllegalArgumentException("Invalid entry");
+        if (timeout.state != Timeout.PENDING)
+            return false;
+        timeout.state = Timeout.CANCELLED;
+        if (timeout.level >= 0)
+            unlink(timeout);
+        // timeouts in the overflow tier are discarded when they reach the top of the heap
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and returns the timeouts that
+     * expired, in order of expiry tick.
+     *
+     * @param now the current time; times earlier than the last poll are ignored
+     * @return the expired timeouts, possibly empty
+     */
+    public ArrayList<Entry<Long,V>> poll(long now) {
+        ArrayList<Entry<Long,V>> expired = new ArrayList<>();
+        long target = Math.floorDiv(now, tickDuration);
+        while (currentTick < target) {
+            if (wheelCount == 0) {
+                // nothing in the wheel: skip the empty ticks up to the next overflow timeout
+                long jump = target;
+                if (!overflow.isEmpty())
+                    jump = Math.min(target, Math.max(currentTick, overflow.min().getKey() - 1));
+                currentTick = jump;
+                transferOverflow();
+                if (currentTick == target)
+                    break;
+            }
+            currentTick++;
+            cascade(expired);
+            expireSlot(expired);
+            transferOverflow();
+        }
+        return expired;
+    }
+
+    /** Puts a pending timeout in the right slot, or in the expired list if it is due. */
+    private void place(Timeout<V> timeout, ArrayList<Entry<Long,V>> expired) {
+        long tick = timeout.deadlineTick;
+        if (tick <= currentTick) {
+            if (expired != null) {      // cascading: the current tick is being processed
+                expire(timeout, expired);
+                return;
+            }
+            tick = currentTick + 1;     // already due when scheduled: fires on the next tick
+        }
+        if (tick - currentTick >= span) {
+            overflow.insert(timeout.deadlineTick, timeout);
+            return;
+        }
+        int level = 0;
+        while (tick - currentTick >= 1L << (wheelBits * (level + 1)))
+            level++;
+        int slot = (int) (tick >>> (wheelBits * level)) & mask;
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = slots[level][slot];
+        if (timeout.next != null)
+            timeout.next.prev = timeout;
+        slots[level][slot] = timeout;
+        wheelCount++;
+    }
+
+    private void unlink(Timeout<V> timeout) {
+        if (timeout.prev == null)
+            slots[timeout.level][timeout.slot] = timeout.next;
+        else
+            timeout.prev.next = timeout.next;
+        if (timeout.next != null)
+            timeout.next.prev = timeout.prev;
+        timeout.prev = timeout.next = null;
+        timeout.level = -1;
+        wheelCount--;
+    }
+
+    private void expire(Timeout<V> timeout, ArrayList<Entry<Long,V>> expired) {
+        timeout.state = Timeout.EXPIRED;
+        size--;
+        expired.add(timeout);
+    }
+
+    /** Redistributes the current slot of every level whose lower levels just wrapped around. */
+    private void cascade(ArrayList<Entry<Long,V>> expired) {
+        for (int level = 1; level < slots.length; level++) {
+            if ((currentTick & ((1L << (wheelBits * level)) - 1)) != 0)
+                break;  // lower levels did not wrap
+            int slot = (int) (currentTick >>> (wheelBits * level)) & mask;
+            Timeout<V> walk = slots[level][slot];
+            slots[level][slot] = null;
+            while (walk != null) {
+                Timeout<V> next = walk.next;
+                walk.level = -1;
+                wheelCount--;
+                place(walk, expired);
+                walk = next;
+            }
+        }
+    }
+
+    /** Expires every timeout in the level-0 slot of the current tick. */
+    private void expireSlot(ArrayList<Entry<Long,V>> expired) {
+        int slot = (int) currentTick & mask;
+        Timeout<V> walk = slots[0][slot];
+        slots[0][slot] = null;
+        while (walk != null) {
+            Timeout<V> next = walk.next;
+            walk.prev = walk.next = null;
+            walk.level = -1;
+            wheelCount--;
+            expire(walk, expired);
+            walk = next;
+        }
+    }
+
+    /** Moves the overflow timeouts that came within the span of the wheel into it. */
+    private void transferOverflow() {
+        while (!overflow.isEmpty() && overflow.min().getKey() - currentTick < span) {
+            Timeout<V> timeout = overflow.removeMin().getValue();
+            if (timeout.state == Timeout.PENDING)
+                place(timeout, null);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.Arrays;
+
+/*  A learned index over a sorted long[], in the style of the PGM-index: the position of a key in the array is
+    a monotone function of the key, and the index stores a piecewise-linear approximation of that function
+    instead of a search tree.
+    Build: a single pass with the shrinking cone algorithm. Every segment starts at a key (x0, y0), y0 being its
+    first position, and keeps the interval of slopes for which the line through (x0, y0) passes within maxError
+    positions of every point seen so far; when a new point leaves the interval empty the segment is closed with
+    the middle slope and a new one starts at that point. O(n) time, and the number of segments shrinks quickly
+    as maxError grows (a single one for evenly spaced keys).
+    Lookup: a binary search over the first keys of the segments (few, so they stay in cache), a prediction, and a
+    binary search over the 2 maxError + 2 positions around it, which touches only a couple of cache lines of the
+    data. Duplicate keys are modelled by their first position; if a long run of duplicates or rounding makes the
+    window miss, the lookup falls back to a galloping search from the prediction, so the answer is always exact.
+    The array is not copied and must not be modified while the index is in use. */
+public class LearnedIndex {
+
+    private final long[] data;
+    private final int maxError;
+    private final long[] firstKeys;     // first key of every segment
+    private final int[] starts;         // first position of every segment
+    private final double[] slopes;      // positions per unit of key
+
+    /**
+     * Builds an index over the sorted array.
+     *
+     * @param data     the sorted array
+     * @param maxError the maximum distance between a predicted and an actual position
+     * @throws IllegalArgumentException if maxError is negative or data is not sorted
+     */
+    public LearnedIndex(long[] data, int maxError) throws IllegalArgumentException {
+        if (maxError < 0)
+            throw new IllegalArgumentException("Illegal error bound: " + maxError);
+        this.data = data;
+        this.maxError = maxError;
+        int n = data.length;
+        long[] keys = new long[Math.max(1, n)];
+        int[] pos = new int[keys.length];
+        double[] slope = new double[keys.length];
+        int m = 0;
+        int i = 0;
+        while (i < n) {
+            // new segment with origin (data[i], i)
+            long x0 = data[i];
+            int y0 = i;
+            double low = 0.0, high = Double.POSITIVE_INFINITY;
+            i++;
+            while (i < n && data[i] == x0)      // duplicates of the origin
+                i++;
+            while (i < n) {
+                if (data[i] < data[i - 1])
+                    throw new IllegalArgumentException("Array not sorted at index " + i);
+                if (data[i] == data[i - 1]) {   // only the first position of a key is modelled
+                    i++;
+                    continue;
+                }
+                double dx = distance(x0, data[i]);
+                double lowI = (i - maxError - y0) / dx;
+                double highI = (i + maxError - y0) / dx;
+                if (lowI > high || highI < low)
+                    break;      // this point would leave the cone empty: it starts the next segment
+                low = Math.max(low, lowI);
+                high = Math.min(high, highI);
+                i++;
+            }
+            keys[m] = x0;
+            pos[m] = y0;
+            slope[m] = (high == Double.POSITIVE_INFINITY) ? 0.0 : (low + high) / 2;
+            m++;
+        }
+        firstKeys = Arrays.copyOf(keys, m);
+        starts = Arrays.copyOf(pos, m);
+        slopes = Arrays.copyOf(slope, m);
+    }
+
+    // key - origin as a double; the difference of sorted keys may not fit in a signed long
+    private static double distance(long origin, long key) {
+        long d = key - origin;
+        return d >= 0 ? (double) d : ((double) (d >>> 1)) * 2.0;
+    }
+
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Returns the number of linear segments of the model.
+     *
+     * @return the number of segments
+     */
+    public int segments() {
+        return firstKeys.length;
+    }
+
+    public int maxError() {
+        return maxError;
+    }
+
+    /**
+     * Returns the first position whose key is not less than key, or size()
+     * if there is none, as Searching.lowerBound on the indexed array.
+     *
+     * @param key the key to search for
+     * @return the lower bound of key
+     */
+    public int lowerBound(long key) {
+        int n = data.length;
+        int s = Searching.upperBound(firstKeys, key) - 1;
+        if (s < 0)
+            return 0;       // smaller than every key
+        double predicted = starts[s] + slopes[s] * distance(firstKeys[s], key);
+        int end = (s + 1 < starts.length) ? starts[s + 1] : n;
+        int p = (int) Math.min(Math.max(predicted, starts[s]), end);
+        int low = Math.max(starts[s], p - maxError);
+        int high = Math.min(end, p + maxError + 2);
+        // the bound is in [low, high] if the values just outside the window are on the right side of key
+        if ((low == 0 || data[low - 1] < key) && (high == n || data[high] >= key))
+            return Searching.lowerBound(data, low, high, key);
+        return Searching.gallopLowerBound(data, key, p);
+    }
+
+    /**
+     * Returns true if key is in the indexed array.
+     *
+     * @param key the key to search for
+     * @return true if the key is present
+     */
+    public boolean contains(long key) {
+        int i = lowerBound(key);
+        return i < data.length && data[i] == key;
+    }
+}
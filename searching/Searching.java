@@ -1,4 +1,35 @@
+import java.util.Comparator;
+
+/*  Searching sorted arrays.
+    lowerBound and upperBound return indices rather than a found/not found answer: the first position whose
+    value is not less than (lowerBound) or greater than (upperBound) the key, which is where the key would be
+    inserted. equalRange combines the two into the range of the copies of the key, and key is present if the
+    range is not empty. They exist for every primitive array type except boolean and for object arrays sorted
+    by a Comparator; double and float values are ordered as by Double.compare and Float.compare (-0.0 before
+    0.0, NaN last), the order used by Sorting for double arrays.
+    branchlessLowerBound trades the early exits of binary search for a loop whose comparisons only select the
+    next base, which the JIT turns into conditional moves: no branch mispredictions, which dominate the cost of
+    searching arrays that fit in cache. gallopLowerBound (exponential search) starts from a hint and costs
+    O(log d) for a result at distance d from it, useful for lookups in increasing order.
+    interpolationLowerBound (int and long) guesses the position of the key from the values at the ends of the
+    range, O(log log n) probes on near-uniform keys; LearnedIndex goes further and fits a piecewise-linear
+    model of the positions once, so that a lookup is a prediction plus a search within its error bound.
+    lowerBounds answers a whole sorted batch of keys (int, long, Comparator) in one pass, each answer narrowing
+    the range left to the others. */
 public class Searching {
+
+    // below this length branchlessLowerBound counts the smaller values instead of halving the range
+    private static final int LINEAR_SCAN_THRESHOLD = 16;
+
+    // floor(log2(n)) for n > 0, 0 otherwise
+    private static int log2(int n) {
+        return n <= 0 ? 0 : 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    private static void checkRange(int length, int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > length || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), length was " + length);
+    }
     
     // binSearch but iterative, if you don't have space this is a good solution
     // it keeps the O(logn) time complexity, but if does NOT returns the correct if data are NOT sorted
@@ -6,8 +37,8 @@ public class Searching {
     public static boolean binarySearchIterative(int[] data, int target) {
         int low = 0;
         int high = data.length - 1;
-        while(low < high){
-            int mid = (low + high) / 2;
+        while(low <= high){     // low == high is still a candidate
+            int mid = (low + high) >>> 1;
             if(target == data[mid])
                 return true;
             else if(target < data[mid])
@@ -18,4 +49,1226 @@ public class Searching {
         // if we arrive it implies target not found
         return false;
     }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(int[] data, int fromIndex, int toIndex, int key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(int[] data, int key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(int[] data, int fromIndex, int toIndex, int key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < data[mid])
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(int[] data, int key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(int[] data, int key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(int[] data, int key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = data[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += data[i] < key ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(int[] data, int key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && data[hint] < key) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && data[high] < key) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && data[low] >= key) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Same result as lowerBound, found by interpolation search: every probe
+     * estimates the position of key from the values at the ends of the range,
+     * as if they were evenly spaced. On near-uniform data (timestamps, ids)
+     * this takes O(log log n) probes instead of log n. On skewed data the
+     * estimates can be poor, so after a budget of O(log log n) probes the
+     * search finishes with a binary search: never worse than O(log n).
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int interpolationLowerBound(int[] data, int key) {
+        int low = 0, high = data.length;     // the bound is in [low, high]
+        int budget = 2 * log2(log2(data.length) + 1) + 2;
+        while (high - low > LINEAR_SCAN_THRESHOLD && budget-- > 0) {
+            int first = data[low], last = data[high - 1];
+            if (key <= first)
+                return low;
+            if (key > last)
+                return high;
+            // first < key <= last: the estimate falls in [low, high - 1)
+            double fraction = ((double) key - first) / ((double) last - first);
+            int pos = low + (int) (fraction * (high - 1 - low));
+            pos = Math.min(Math.max(pos, low), high - 2);
+            if (data[pos] < key)
+                low = pos + 1;
+            else
+                high = pos;
+        }
+        return lowerBound(data, low, high, key);
+    }
+
+    /**
+     * Returns the lower bounds of many keys at once: result[i] is
+     * lowerBound(data, queries[i]). The queries must be sorted, so every
+     * answer splits both arrays: the middle query is searched first, and the
+     * queries before and after it are searched, recursively, only on the part
+     * of data before and after its answer. Once a part of data is no longer
+     * than its queries, the two are merged by a linear scan. O(m log(n/m) + m)
+     * comparisons for m queries instead of m log n, and the narrowing ranges
+     * keep revisiting the same cache lines.
+     *
+     * @param data    the sorted array
+     * @param queries the sorted keys to search for
+     * @return the lower bound of every query
+     * @throws IllegalArgumentException if the queries are not sorted
+     */
+    public static int[] lowerBounds(int[] data, int[] queries) throws IllegalArgumentException {
+        for (int q = 1; q < queries.length; q++)
+            if (queries[q] < queries[q - 1])
+                throw new IllegalArgumentException("Queries not sorted at index " + q);
+        int[] result = new int[queries.length];
+        lowerBounds(data, 0, data.length, queries, 0, queries.length, result);
+        return result;
+    }
+
+    // answers queries[qLow, qHigh), whose lower bounds are known to lie in [low, high]
+    private static void lowerBounds(int[] data, int low, int high, int[] queries, int qLow, int qHigh, int[] result) {
+        while (qLow < qHigh) {
+            if (high - low <= qHigh - qLow) {   // as many queries as values: merge
+                int i = low;
+                for (int q = qLow; q < qHigh; q++) {
+                    while (i < high && data[i] < queries[q])
+                        i++;
+                    result[q] = i;
+                }
+                return;
+            }
+            int qMid = (qLow + qHigh) >>> 1;
+            int pos = lowerBound(data, low, high, queries[qMid]);
+            result[qMid] = pos;
+            lowerBounds(data, low, pos, queries, qLow, qMid, result);
+            low = pos;      // the queries after qMid, on the right part
+            qLow = qMid + 1;
+        }
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(long[] data, int fromIndex, int toIndex, long key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(long[] data, long key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(long[] data, int fromIndex, int toIndex, long key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < data[mid])
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(long[] data, long key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(long[] data, long key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(long[] data, long key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = data[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += data[i] < key ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(long[] data, long key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && data[hint] < key) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && data[high] < key) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && data[low] >= key) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Same result as lowerBound, found by interpolation search: every probe
+     * estimates the position of key from the values at the ends of the range,
+     * as if they were evenly spaced. On near-uniform data (timestamps, ids)
+     * this takes O(log log n) probes instead of log n. On skewed data the
+     * estimates can be poor, so after a budget of O(log log n) probes the
+     * search finishes with a binary search: never worse than O(log n).
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int interpolationLowerBound(long[] data, long key) {
+        int low = 0, high = data.length;     // the bound is in [low, high]
+        int budget = 2 * log2(log2(data.length) + 1) + 2;
+        while (high - low > LINEAR_SCAN_THRESHOLD && budget-- > 0) {
+            long first = data[low], last = data[high - 1];
+            if (key <= first)
+                return low;
+            if (key > last)
+                return high;
+            // first < key <= last: the estimate falls in [low, high - 1)
+            double fraction = ((double) key - first) / ((double) last - first);
+            int pos = low + (int) (fraction * (high - 1 - low));
+            pos = Math.min(Math.max(pos, low), high - 2);
+            if (data[pos] < key)
+                low = pos + 1;
+            else
+                high = pos;
+        }
+        return lowerBound(data, low, high, key);
+    }
+
+    /**
+     * Returns the lower bounds of many keys at once: result[i] is
+     * lowerBound(data, queries[i]). The queries must be sorted, so every
+     * answer splits both arrays: the middle query is searched first, and the
+     * queries before and after it are searched, recursively, only on the part
+     * of data before and after its answer. Once a part of data is no longer
+     * than its queries, the two are merged by a linear scan. O(m log(n/m) + m)
+     * comparisons for m queries instead of m log n, and the narrowing ranges
+     * keep revisiting the same cache lines.
+     *
+     * @param data    the sorted array
+     * @param queries the sorted keys to search for
+     * @return the lower bound of every query
+     * @throws IllegalArgumentException if the queries are not sorted
+     */
+    public static int[] lowerBounds(long[] data, long[] queries) throws IllegalArgumentException {
+        for (int q = 1; q < queries.length; q++)
+            if (queries[q] < queries[q - 1])
+                throw new IllegalArgumentException("Queries not sorted at index " + q);
+        int[] result = new int[queries.length];
+        lowerBounds(data, 0, data.length, queries, 0, queries.length, result);
+        return result;
+    }
+
+    // answers queries[qLow, qHigh), whose lower bounds are known to lie in [low, high]
+    private static void lowerBounds(long[] data, int low, int high, long[] queries, int qLow, int qHigh, int[] result) {
+        while (qLow < qHigh) {
+            if (high - low <= qHigh - qLow) {   // as many queries as values: merge
+                int i = low;
+                for (int q = qLow; q < qHigh; q++) {
+                    while (i < high && data[i] < queries[q])
+                        i++;
+                    result[q] = i;
+                }
+                return;
+            }
+            int qMid = (qLow + qHigh) >>> 1;
+            int pos = lowerBound(data, low, high, queries[qMid]);
+            result[qMid] = pos;
+            lowerBounds(data, low, pos, queries, qLow, qMid, result);
+            low = pos;      // the queries after qMid, on the right part
+            qLow = qMid + 1;
+        }
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(double[] data, int fromIndex, int toIndex, double key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(data[mid], key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(double[] data, double key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(double[] data, int fromIndex, int toIndex, double key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(key, data[mid]) < 0)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(double[] data, double key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(double[] data, double key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(double[] data, double key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = Double.compare(data[base + half], key) < 0 ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += Double.compare(data[i], key) < 0 ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(double[] data, double key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && Double.compare(data[hint], key) < 0) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && Double.compare(data[high], key) < 0) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && Double.compare(data[low], key) >= 0) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(char[] data, int fromIndex, int toIndex, char key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(char[] data, char key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(char[] data, int fromIndex, int toIndex, char key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < data[mid])
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(char[] data, char key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(char[] data, char key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(char[] data, char key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = data[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += data[i] < key ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(char[] data, char key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && data[hint] < key) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && data[high] < key) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && data[low] >= key) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(byte[] data, int fromIndex, int toIndex, byte key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(byte[] data, byte key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(byte[] data, int fromIndex, int toIndex, byte key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < data[mid])
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(byte[] data, byte key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(byte[] data, byte key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(byte[] data, byte key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = data[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += data[i] < key ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(byte[] data, byte key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && data[hint] < key) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && data[high] < key) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && data[low] >= key) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(short[] data, int fromIndex, int toIndex, short key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(short[] data, short key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(short[] data, int fromIndex, int toIndex, short key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key < data[mid])
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(short[] data, short key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(short[] data, short key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(short[] data, short key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = data[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += data[i] < key ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(short[] data, short key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && data[hint] < key) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && data[high] < key) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && data[low] >= key) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is not less
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted before its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int lowerBound(float[] data, int fromIndex, int toIndex, float key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Float.compare(data[mid], key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static int lowerBound(float[] data, float key) {
+        return lowerBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose value is greater
+     * than key, or toIndex if there is none: the position where key would be
+     * inserted after its equals. The range must be sorted.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the value to search for
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static int upperBound(float[] data, int fromIndex, int toIndex, float key) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Float.compare(key, data[mid]) < 0)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static int upperBound(float[] data, float key) {
+        return upperBound(data, 0, data.length, key);
+    }
+
+    /**
+     * Returns the range of indices holding key in the sorted array, as
+     * {lowerBound, upperBound}; the range is empty if key is absent.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static int[] equalRange(float[] data, float key) {
+        int first = lowerBound(data, 0, data.length, key);
+        return new int[] { first, upperBound(data, first, data.length, key) };
+    }
+
+    /**
+     * Same result as lowerBound, computed without unpredictable branches: the
+     * loop always runs log n times and the comparison only selects the next
+     * base (a conditional move), so mispredictions do not stall the pipeline;
+     * the last LINEAR_SCAN_THRESHOLD values are counted by a simple loop the
+     * JIT can vectorize. Faster than lowerBound on arrays that fit in cache.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @return the lower bound of key
+     */
+    public static int branchlessLowerBound(float[] data, float key) {
+        int base = 0, n = data.length;
+        while (n > LINEAR_SCAN_THRESHOLD) {
+            int half = n >>> 1;
+            base = Float.compare(data[base + half], key) < 0 ? base + half : base;
+            n -= half;
+        }
+        int end = base + n;
+        int less = 0;
+        for (int i = base; i < end; i++)
+            less += Float.compare(data[i], key) < 0 ? 1 : 0;
+        return base + less;
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * where d is the distance between hint and the result, so it beats a full
+     * binary search when consecutive lookups land close to each other.
+     *
+     * @param data the sorted array
+     * @param key  the value to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static int gallopLowerBound(float[] data, float key, int hint) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && Float.compare(data[hint], key) < 0) {
+            // the bound is after hint: gallop right while the values are less than key
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && Float.compare(data[high], key) < 0) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key);
+        }
+        // the bound is at hint or before: gallop left while the values are not less than key
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && Float.compare(data[low], key) >= 0) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose element is not
+     * less than key according to comp, or toIndex if there is none. The range
+     * must be sorted by the same comparator.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the element to search for
+     * @param comp      the comparator the array is sorted by
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static <T> int lowerBound(T[] data, int fromIndex, int toIndex, T key, Comparator<? super T> comp) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comp.compare(data[mid], key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public static <T> int lowerBound(T[] data, T key, Comparator<? super T> comp) {
+        return lowerBound(data, 0, data.length, key, comp);
+    }
+
+    /**
+     * Returns the first index in [fromIndex, toIndex) whose element is greater
+     * than key according to comp, or toIndex if there is none. The range must
+     * be sorted by the same comparator.
+     *
+     * @param data      the sorted array
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param key       the element to search for
+     * @param comp      the comparator the array is sorted by
+     * @return the upper bound of key
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static <T> int upperBound(T[] data, int fromIndex, int toIndex, T key, Comparator<? super T> comp) {
+        checkRange(data.length, fromIndex, toIndex);
+        int low = fromIndex, high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comp.compare(key, data[mid]) < 0)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return low;
+    }
+
+    public static <T> int upperBound(T[] data, T key, Comparator<? super T> comp) {
+        return upperBound(data, 0, data.length, key, comp);
+    }
+
+    /**
+     * Returns the range of indices holding elements equal to key according
+     * to comp, as {lowerBound, upperBound}; the range is empty if there are none.
+     *
+     * @param data the sorted array
+     * @param key  the element to search for
+     * @param comp the comparator the array is sorted by
+     * @return the pair {first index of key, last index of key + 1}
+     */
+    public static <T> int[] equalRange(T[] data, T key, Comparator<? super T> comp) {
+        int first = lowerBound(data, 0, data.length, key, comp);
+        return new int[] { first, upperBound(data, first, data.length, key, comp) };
+    }
+
+    /**
+     * Returns the lower bound of key, searching outwards from hint with steps
+     * of 1, 2, 4... and then by binary search within the last step: O(log d)
+     * comparisons where d is the distance between hint and the result.
+     *
+     * @param data the sorted array
+     * @param key  the element to search for
+     * @param hint the index where the search starts, in [0, data.length]
+     * @param comp the comparator the array is sorted by
+     * @return the lower bound of key
+     * @throws ArrayIndexOutOfBoundsException if hint is out of range
+     */
+    public static <T> int gallopLowerBound(T[] data, T key, int hint, Comparator<? super T> comp) {
+        int n = data.length;
+        checkRange(n, hint, hint);
+        if (hint < n && comp.compare(data[hint], key) < 0) {
+            int low = hint + 1, high = low, step = 1;
+            while (high < n && comp.compare(data[high], key) < 0) {
+                low = high + 1;
+                step <<= 1;
+                high = (n - hint > step) ? hint + step : n;
+            }
+            return lowerBound(data, low, Math.min(high, n), key, comp);
+        }
+        int high = hint, low = hint - 1, step = 1;
+        while (low >= 0 && comp.compare(data[low], key) >= 0) {
+            high = low;
+            step <<= 1;
+            low = (step > hint) ? -1 : hint - step;
+        }
+        return lowerBound(data, low + 1, high, key, comp);
+    }
+
+    /**
+     * Returns the lower bounds of many keys at once: result[i] is
+     * lowerBound(data, queries[i], comp). The queries must be sorted by comp;
+     * they are answered by recursive splitting and merging as in
+     * lowerBounds(long[], long[]), with O(m log(n/m) + m) comparisons.
+     *
+     * @param data    the sorted array
+     * @param queries the sorted keys to search for
+     * @param comp    the comparator both arrays are sorted by
+     * @return the lower bound of every query
+     * @throws IllegalArgumentException if the queries are not sorted
+     */
+    public static <T> int[] lowerBounds(T[] data, T[] queries, Comparator<? super T> comp) throws IllegalArgumentException {
+        for (int q = 1; q < queries.length; q++)
+            if (comp.compare(queries[q], queries[q - 1]) < 0)
+                throw new IllegalArgumentException("Queries not sorted at index " + q);
+        int[] result = new int[queries.length];
+        lowerBounds(data, 0, data.length, queries, 0, queries.length, result, comp);
+        return result;
+    }
+
+    private static <T> void lowerBounds(T[] data, int low, int high, T[] queries, int qLow, int qHigh, int[] result,
+                                        Comparator<? super T> comp) {
+        while (qLow < qHigh) {
+            if (high - low <= qHigh - qLow) {
+                int i = low;
+                for (int q = qLow; q < qHigh; q++) {
+                    while (i < high && comp.compare(data[i], queries[q]) < 0)
+                        i++;
+                    result[q] = i;
+                }
+                return;
+            }
+            int qMid = (qLow + qHigh) >>> 1;
+            int pos = lowerBound(data, low, high, queries[qMid], comp);
+            result[qMid] = pos;
+            lowerBounds(data, low, pos, queries, qLow, qMid, result, comp);
+            low = pos;
+            qLow = qMid + 1;
+        }
+    }
 }
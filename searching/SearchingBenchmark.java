@@ -0,0 +1,86 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/*  A small benchmark comparing the searches of Searching with java.util.Arrays.binarySearch.
+    Every case looks up the same random queries in a sorted long[] and reports the best average time per
+    lookup over several rounds, after a warm-up. Sizes range from arrays that fit in the L1 cache to arrays
+    far larger than the last level cache, where every probe of a binary search is a cache miss. The sorted
+    queries case feeds gallopLowerBound the previous result as its hint. Results are indicative only: for
+    rigorous numbers use a dedicated harness such as JMH.
+    Usage: java SearchingBenchmark [queries] [rounds] */
+public class SearchingBenchmark {
+
+    private interface Search {
+        int search(long[] data, long key);
+    }
+
+    private static long sink;   // results are accumulated here so the searches cannot be optimized away
+
+    private static double best(long[] data, long[] queries, Search search, int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (long q : queries)
+                sum += search.search(data, q);
+            best = Math.min(best, System.nanoTime() - start);
+            sink += sum;
+        }
+        return (double) best / queries.length;
+    }
+
+    // time per query of a whole batch
+    private static double bestBatch(long[] data, long[] queries, int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            int[] result = Searching.lowerBounds(data, queries);
+            best = Math.min(best, System.nanoTime() - start);
+            sink += result[result.length - 1];
+        }
+        return (double) best / queries.length;
+    }
+
+    private static void compare(String name, long[] data, long[] queries, Search ours, int rounds) {
+        Search jdk = Arrays::binarySearch;
+        best(data, queries, ours, 3);   // warm-up
+        best(data, queries, jdk, 3);
+        double a = best(data, queries, ours, rounds);
+        double b = best(data, queries, jdk, rounds);
+        System.out.printf("%-28s Searching %7.1f ns   Arrays.binarySearch %7.1f ns%n", name, a, b);
+    }
+
+    public static void main(String[] args) {
+        int queryCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Random random = new Random(42);
+
+        for (int n : new int[] { 1 << 10, 1 << 16, 1 << 22 }) {
+            long[] data = new long[n];
+            for (int i = 0; i < n; i++)
+                data[i] = random.nextLong() >>> 1;
+            Arrays.sort(data);
+            long[] queries = new long[queryCount];
+            for (int i = 0; i < queryCount; i++)
+                queries[i] = random.nextBoolean() ? data[random.nextInt(n)] : random.nextLong() >>> 1;
+            long[] sortedQueries = queries.clone();
+            Arrays.sort(sortedQueries);
+            int[] hint = new int[1];
+
+            System.out.println("n = " + n + ", " + queryCount + " lookups, best of " + rounds + " rounds, time per lookup");
+            compare("lowerBound", data, queries, Searching::lowerBound, rounds);
+            compare("branchlessLowerBound", data, queries, Searching::branchlessLowerBound, rounds);
+            compare("gallopLowerBound sorted", data, sortedQueries,
+                    (d, k) -> hint[0] = Searching.gallopLowerBound(d, k, Math.min(hint[0], d.length)), rounds);
+            compare("interpolationLowerBound", data, queries, Searching::interpolationLowerBound, rounds);
+            LearnedIndex index = new LearnedIndex(data, 32);
+            compare("LearnedIndex, " + index.segments() + " segments", data, queries, (d, k) -> index.lowerBound(k), rounds);
+            bestBatch(data, sortedQueries, 3);  // warm-up
+            double batch = bestBatch(data, sortedQueries, rounds);
+            double single = best(data, sortedQueries, Arrays::binarySearch, rounds);
+            System.out.printf("%-28s Searching %7.1f ns   Arrays.binarySearch %7.1f ns%n", "lowerBounds sorted batch", batch, single);
+        }
+        if (sink == 42)
+            System.out.println();
+    }
+}
@@ -0,0 +1,317 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import heap.HeapPQ;
+import lists.ArrayList;
+
+/*  External merge sort for files of fixed-width records that do not fit in memory.
+    Phase 1 (runs): the input is read through a FileChannel one chunk at a time, as many records as the
+    memory budget allows after reserving the output buffer; every chunk is sorted in memory with a stable
+    merge sort on an int array of record indexes, so records are never copied one by one, and written to a
+    temporary run file.
+    Phase 2 (merge): runs are merged fanIn at a time with a k-way merge: a HeapPQ holds one reader per run,
+    keyed by the reader's current record, so the smallest record is always at the root; after writing it the
+    reader advances in place and the root entry is sifted down once (HeapPQ.siftRoot), so the merge loop
+    allocates nothing per record. If there are more runs than fanIn, groups of runs are merged into longer
+    runs until one final merge writes the output.
+    Every file is accessed sequentially through large buffers carved out of the memory budget. With n records,
+    a budget of M records and fan-in k the sort reads and writes the data 1 + ceil(log_k(n/M)) times.
+    Records with equal keys keep their input order inside a run but not across runs: the sort is not stable. */
+public class ExternalSort {
+
+    /** Compares two records stored in byte arrays at the given offsets. */
+    public interface RecordComparator {
+        int compare(byte[] a, int offsetA, byte[] b, int offsetB);
+    }
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;    // 64 MB
+    public static final int DEFAULT_FAN_IN = 64;
+
+    // memory per record used by the in-memory sort besides the record: index and merge buffer, an int each
+    private static final int INDEX_OVERHEAD = 8;
+
+    // index ranges shorter than this are sorted by insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private final int recordSize;
+    private final RecordComparator comp;
+    private final long memoryBudget;
+    private final int fanIn;
+    private final Path tempDir;
+
+    /**
+     * Creates an external sort with the default memory budget and fan-in,
+     * using the default temporary directory.
+     *
+     * @param recordSize the size of every record, in bytes
+     * @param comp       the order of the records
+     * @throws IllegalArgumentException if recordSize is not positive
+     */
+    public ExternalSort(int recordSize, RecordComparator comp) throws IllegalArgumentException {
+        this(recordSize, comp, DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * Creates an external sort.
+     *
+     * @param recordSize   the size of every record, in bytes
+     * @param comp         the order of the records
+     * @param memoryBudget the memory to use for runs and I/O buffers, in bytes
+     * @param fanIn        the maximum number of runs merged at once, at least 2
+     * @param tempDir      the directory for the run files, or null for the default temporary directory
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public ExternalSort(int recordSize, RecordComparator comp, long memoryBudget, int fanIn, Path tempDir) throws IllegalArgumentException {
+        if (recordSize <= 0)
+            throw new IllegalArgumentException("Record size must be positive");
+        if (fanIn < 2)
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        this.recordSize = recordSize;
+        this.comp = comp;
+        this.memoryBudget = memoryBudget;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+        if (memoryBudget < (long) (fanIn + 1) * recordSize || recordsPerRun() < 2)
+            throw new IllegalArgumentException("Memory budget too small for the record size and fan-in");
+    }
+
+    /**
+     * Returns a comparator ordering records by their first keyLength bytes,
+     * compared as unsigned values (lexicographic order).
+     *
+     * @param keyLength the number of leading bytes forming the key
+     * @return the comparator
+     */
+    public static RecordComparator lexicographic(int keyLength) {
+        return (a, offsetA, b, offsetB) -> {
+            for (int i = 0; i < keyLength; i++) {
+                int c = (a[offsetA + i] & 0xFF) - (b[offsetB + i] & 0xFF);
+                if (c != 0)
+                    return c;
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Sorts the records of input into output. Output is overwritten; the
+     * temporary run files are deleted when the sort ends, even if it fails.
+     *
+     * @param input  the file to sort; its size must be a multiple of the record size
+     * @param output the file receiving the sorted records
+     * @throws IOException if an I/O error occurs or the input is not made of whole records
+     */
+    public void sort(Path input, Path output) throws IOException {
+        ArrayList<Path> runs = new ArrayList<>();
+        ArrayList<Path> created = new ArrayList<>();    // every run file, deleted at the end
+        try {
+            createRuns(input, runs, created);
+            if (runs.isEmpty()) {
+                Files.write(output, new byte[0]);
+                return;
+            }
+            while (runs.size() > fanIn) {   // intermediate passes
+                ArrayList<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    int end = Math.min(i + fanIn, runs.size());
+                    if (end - i == 1) {         // a lonely run is carried over as it is
+                        merged.add(runs.get(i));
+                        continue;
+                    }
+                    Path run = newRunFile(created);
+                    merged.add(run);
+                    merge(runs, i, end, run);
+                    for (int j = i; j < end; j++)
+                        Files.deleteIfExists(runs.get(j));
+                }
+                runs = merged;
+            }
+            merge(runs, 0, runs.size(), output);
+        } finally {
+            for (int i = 0; i < created.size(); i++)
+                Files.deleteIfExists(created.get(i));
+        }
+    }
+
+    // creates a temporary run file and records it in created
+    private Path newRunFile(ArrayList<Path> created) throws IOException {
+        Path run = tempDir == null ? Files.createTempFile("run", ".tmp") : Files.createTempFile(tempDir, "run", ".tmp");
+        created.add(run);
+        return run;
+    }
+
+    // the size of an I/O buffer when n of them share the budget, a multiple of the record size
+    private int bufferSize(int n) {
+        long records = Math.max(1, memoryBudget / n / recordSize);
+        return (int) Math.min(records * recordSize, (Integer.MAX_VALUE - 8) / recordSize * (long) recordSize);
+    }
+
+    // fills the buffer from the channel until it is full or the channel ends; returns the bytes read
+    private static int readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0)
+                break;
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    // the records of a run: what the budget leaves after the output buffer of writeRun
+    private long recordsPerRun() {
+        long records = (memoryBudget - bufferSize(8)) / (recordSize + INDEX_OVERHEAD);
+        return Math.min(records, (Integer.MAX_VALUE - 8) / recordSize);
+    }
+
+    private void createRuns(Path input, ArrayList<Path> runs, ArrayList<Path> created) throws IOException {
+        int recordsPerRun = (int) recordsPerRun();
+        byte[] chunk = new byte[recordsPerRun * recordSize];
+        int[] order = new int[recordsPerRun];
+        int[] work = new int[recordsPerRun];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            while (true) {
+                buffer.clear();
+                int bytes = readFully(in, buffer);
+                if (bytes == 0)
+                    break;
+                if (bytes % recordSize != 0)
+                    throw new IOException("Input size is not a multiple of the record size " + recordSize);
+                int n = bytes / recordSize;
+                for (int i = 0; i < n; i++)
+                    order[i] = work[i] = i;
+                sortIndexes(chunk, work, order, 0, n);
+                Path run = newRunFile(created);
+                runs.add(run);
+                writeRun(chunk, order, n, run);
+            }
+        }
+    }
+
+    // stable merge sort of the record indexes in [from, to) of dst, using src, a copy of the same range, as scratch
+    private void sortIndexes(byte[] chunk, int[] src, int[] dst, int from, int to) {
+        if (to - from < INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int index = dst[i];
+                int j = i - 1;
+                while (j >= from && comp.compare(chunk, dst[j] * recordSize, chunk, index * recordSize) > 0) {
+                    dst[j + 1] = dst[j];
+                    j--;
+                }
+                dst[j + 1] = index;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortIndexes(chunk, dst, src, from, mid);    // the halves are sorted into src, then merged into dst
+        sortIndexes(chunk, dst, src, mid, to);
+        int i = from, j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && comp.compare(chunk, src[i] * recordSize, chunk, src[j] * recordSize) <= 0))
+                dst[k] = src[i++];
+            else
+                dst[k] = src[j++];
+        }
+    }
+
+    private void writeRun(byte[] chunk, int[] order, int n, Path run) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(Math.min(bufferSize(8), n * recordSize));
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < n; i++) {
+                if (out.remaining() < recordSize) {
+                    out.flip();
+                    writeFully(channel, out);
+                    out.clear();
+                }
+                out.put(chunk, order[i] * recordSize, recordSize);
+            }
+            out.flip();
+            writeFully(channel, out);
+        }
+    }
+
+    /** Sequential reader of a run, exposing its current record inside the read buffer. */
+    private class RunReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int position;   // offset of the current record in the buffer array
+
+        RunReader(Path run, int bufferSize) throws IOException {
+            channel = FileChannel.open(run, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocate(bufferSize);
+            buffer.limit(0);
+            position = -recordSize;
+        }
+
+        /** Moves to the next record; returns false at the end of the run. */
+        boolean advance() throws IOException {
+            position += recordSize;
+            if (position < buffer.limit())
+                return true;
+            buffer.clear();
+            int bytes = readFully(channel, buffer);
+            buffer.flip();
+            position = 0;
+            if (bytes % recordSize != 0)
+                throw new IOException("Truncated run file");
+            return bytes > 0;
+        }
+
+        byte[] array() {
+            return buffer.array();
+        }
+
+        int position() {
+            return position;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private void merge(ArrayList<Path> runs, int from, int to, Path output) throws IOException {
+        int k = to - from;
+        int size = bufferSize(k + 1);
+        HeapPQ<RunReader, Void> heap = new HeapPQ<>(
+                (a, b) -> comp.compare(a.array(), a.position(), b.array(), b.position()));
+        ArrayList<RunReader> readers = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = from; i < to; i++) {
+                RunReader reader = new RunReader(runs.get(i), size);
+                readers.add(reader);
+                if (reader.advance())
+                    heap.insert(reader, null);
+            }
+            ByteBuffer out = ByteBuffer.allocate(size);
+            while (!heap.isEmpty()) {
+                RunReader smallest = heap.min().getKey();
+                if (out.remaining() < recordSize) {
+                    out.flip();
+                    writeFully(channel, out);
+                    out.clear();
+                }
+                out.put(smallest.array(), smallest.position(), recordSize);
+                if (smallest.advance())
+                    heap.siftRoot();    // same reader, next record: one down-heap, no new entry
+                else
+                    heap.removeMin();
+            }
+            out.flip();
+            writeFully(channel, out);
+        } finally {
+            for (int i = 0; i < readers.size(); i++)
+                readers.get(i).close();
+        }
+    }
+}
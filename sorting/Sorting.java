@@ -1,18 +1,1549 @@
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+import lists.ArrayList;
+
+/*  Sorting algorithms.
+    Primitive arrays (int, long, double, char) are sorted with a dual-pivot quicksort: two pivots split
+    every range into three parts, which on random data does fewer comparisons and fewer passes over memory
+    than classic quicksort. Partitions shorter than INSERTION_SORT_THRESHOLD are finished with insertion
+    sort, and if the recursion gets deeper than 2 log n the range is finished with heap sort, so the worst
+    case stays O(n log n). The sort is not stable, which does not matter for primitives. Large char arrays
+    are instead sorted in linear time by counting sort, since a char can only take 65536 values.
+    Object arrays and lists.ArrayList are sorted with a stable, adaptive merge sort in the style of TimSort:
+    it finds the runs already present in the input, so sorted or nearly sorted data costs close to O(n),
+    and it never does more than O(n log n) comparisons.
+    The parallel entry points use the common fork-join pool: parallelSort is a fork-join merge sort for
+    objects, parallelRadixSort an LSD radix sort for int and long keys (also extracted from objects). Both
+    fall back to the sequential sorts for small inputs.
+    When only part of the order is needed, select (nth element) and partialSort avoid the full sort. They run
+    an introselect: quickselect with the pivots of the quicksort, partitioning three ways so that duplicates
+    end the search early, which is O(n) expected; after 2 log n partitions it switches to median-of-medians
+    pivots, which keep O(n) in the worst case. partialSort selects the k-th value and sorts only the k values
+    before it, O(n + k log k). For a stream whose size is not known in advance, see heap.TopKSelector. */
 public class Sorting{
 
+    // ranges shorter than this are sorted by insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 47;
+
+    // char arrays longer than this are sorted by counting sort
+    private static final int COUNTING_SORT_THRESHOLD = 3200;
+
+    // parallel merge sort and parallel merges work sequentially on pieces up to this length
+    private static final int PARALLEL_MERGE_THRESHOLD = 1 << 13;
+
+    // arrays shorter than this are not worth a parallel radix sort
+    private static final int RADIX_THRESHOLD = 1 << 16;
+
+    // number of values of a radix digit
+    private static final int RADIX = 256;
+
     // inserction sort, complexity O(n^2) which means terrible performance in worst and average case,
     // but in the best case (which we are not interested in) it's O(n)
+    // kept for small inputs: the sort methods below use it only for their small partitions
     public static void insertionSort(char[] data) {
-        for (int i = 1; i < data.length; i++) {
+        insertionSort(data, 0, data.length - 1);
+    }
+
+    private static void checkRange(int length, int fromIndex, int toIndex) throws ArrayIndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > length || fromIndex > toIndex)
+            throw new ArrayIndexOutOfBoundsException("Illegal range [" + fromIndex + ", " + toIndex + "), length was " + length);
+    }
+
+    private static void checkIndex(int length, int index) throws ArrayIndexOutOfBoundsException {
+        if (index < 0 || index >= length)
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+    }
+
+    // floor(log2(n)) for n > 0, 0 otherwise
+    private static int log2(int n) {
+        return n <= 0 ? 0 : 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a dual-pivot quicksort.
+     *
+     * @param data the array to sort
+     */
+    public static void sort(int[] data) {
+        sort(data, 0, data.length);
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the array into ascending numerical order.
+     *
+     * @param data      the array to sort
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static void sort(int[] data, int fromIndex, int toIndex) {
+        checkRange(data.length, fromIndex, toIndex);
+        dualPivotQuicksort(data, fromIndex, toIndex - 1, 2 * log2(toIndex - fromIndex));
+    }
+
+    private static void dualPivotQuicksort(int[] a, int left, int right, int depth) {
+        if (right - left < INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, left, right);
+            return;
+        }
+        if (depth == 0) {           // too many bad partitions: O(n log n) guaranteed from here
+            heapSort(a, left, right);
+            return;
+        }
+        // five evenly spaced samples, sorted in place; the 2nd and 4th become the pivots
+        int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+        int e3 = (left + right) >>> 1;
+        int e2 = e3 - seventh, e1 = e2 - seventh;
+        int e4 = e3 + seventh, e5 = e4 + seventh;
+        sortSamples(a, e1, e2, e3, e4, e5);
+        swap(a, e2, left);
+        swap(a, e4, right);
+        int p = a[left], q = a[right];
+        int lt = left + 1, gt = right - 1, k = lt;
+        while (k <= gt) {
+            if (a[k] < p)
+                swap(a, k, lt++);           // belongs to the left part
+            else if (a[k] > q) {
+                while (a[gt] > q && k < gt)
+                    gt--;
+                swap(a, k, gt--);           // belongs to the right part
+                if (a[k] < p)
+                    swap(a, k, lt++);
+            }
+            k++;
+        }
+        swap(a, left, --lt);    // pivots to their final positions
+        swap(a, right, ++gt);
+        dualPivotQuicksort(a, left, lt - 1, depth - 1);
+        if (p < q)              // with equal pivots the middle part is already sorted
+            dualPivotQuicksort(a, lt + 1, gt - 1, depth - 1);
+        dualPivotQuicksort(a, gt + 1, right, depth - 1);
+    }
+
+    // optimal sorting network for the five samples
+    private static void sortSamples(int[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    private static void compareSwap(int[] a, int i, int j) {
+        if (a[i] > a[j])
+            swap(a, i, j);
+    }
+
+    // insertion sort on [left, right], used for the small partitions
+    private static void insertionSort(int[] data, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int current = data[i];
+            int k = i;
+            while (k > left && data[k-1] > current) {
+                data[k] = data[k-1];    // slide right
+                k--;
+            }
+            data[k] = current;
+        }
+    }
+
+    // heap sort on [left, right], the fallback of the quicksort
+    private static void heapSort(int[] a, int left, int right) {
+        int n = right - left + 1;
+        for (int j = n / 2 - 1; j >= 0; j--)
+            siftDown(a, left, j, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, left, left + end);  // current maximum to the end
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int base, int j, int n) {
+        int item = a[base + j];
+        while (2 * j + 1 < n) {
+            int child = 2 * j + 1;
+            if (child + 1 < n && a[base + child + 1] > a[base + child])
+                child++;
+            if (item >= a[base + child])
+                break;
+            a[base + j] = a[base + child];
+            j = child;
+        }
+        a[base + j] = item;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * Rearranges the array so that data[k] holds the value it would hold if
+     * the array were sorted, with no greater value before it and no smaller
+     * value after it. Expected O(n), O(n) in the worst case too.
+     *
+     * @param data the array
+     * @param k    the index of the value to select
+     * @return the k-th smallest value, counting from 0
+     * @throws ArrayIndexOutOfBoundsException if k is not an index of the array
+     */
+    public static int select(int[] data, int k) {
+        checkIndex(data.length, k);
+        introselect(data, 0, data.length - 1, k, 2 * log2(data.length));
+        return data[k];
+    }
+
+    /**
+     * Moves the k smallest values of the array, sorted, to data[0..k); the
+     * other values follow in no particular order. O(n + k log k).
+     *
+     * @param data the array
+     * @param k    the number of values to sort
+     * @throws ArrayIndexOutOfBoundsException if k is negative or greater than the length
+     */
+    public static void partialSort(int[] data, int k) {
+        checkRange(data.length, 0, k);
+        if (k == 0)
+            return;
+        introselect(data, 0, data.length - 1, k - 1, 2 * log2(data.length));
+        sort(data, 0, k - 1);   // data[k-1] is already in place
+    }
+
+    private static void introselect(int[] a, int left, int right, int k, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            int p;
+            if (depth > 0) {        // pivot: median of the five samples of the quicksort
+                depth--;
+                int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+                int e3 = (left + right) >>> 1;
+                sortSamples(a, e3 - 2 * seventh, e3 - seventh, e3, e3 + seventh, e3 + 2 * seventh);
+                p = a[e3];
+            } else                  // too many bad partitions: guaranteed pivots from here
+                p = medianOfMedians(a, left, right);
+            // three-way partition: [left, lt) < p, [lt, gt] == p, (gt, right] > p
+            int lt = left, gt = right, i = left;
+            while (i <= gt) {
+                if (a[i] < p)
+                    swap(a, lt++, i++);
+                else if (a[i] > p)
+                    swap(a, i, gt--);
+                else
+                    i++;
+            }
+            if (k < lt)
+                right = lt - 1;
+            else if (k > gt)
+                left = gt + 1;
+            else
+                return;             // k falls among the copies of the pivot
+        }
+        insertionSort(a, left, right);
+    }
+
+    // median of the medians of groups of five: at least 3/10 of the range lies on each side of it
+    private static int medianOfMedians(int[] a, int left, int right) {
+        int m = left;
+        for (int g = left; g <= right; g += 5) {
+            int end = Math.min(g + 4, right);
+            insertionSort(a, g, end);
+            swap(a, m++, (g + end) >>> 1);  // medians gathered at the front
+        }
+        int mid = (left + m - 1) >>> 1;
+        introselect(a, left, m - 1, mid, 0);
+        return a[mid];
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a dual-pivot quicksort.
+     *
+     * @param data the array to sort
+     */
+    public static void sort(long[] data) {
+        sort(data, 0, data.length);
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the array into ascending numerical order.
+     *
+     * @param data      the array to sort
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static void sort(long[] data, int fromIndex, int toIndex) {
+        checkRange(data.length, fromIndex, toIndex);
+        dualPivotQuicksort(data, fromIndex, toIndex - 1, 2 * log2(toIndex - fromIndex));
+    }
+
+    private static void dualPivotQuicksort(long[] a, int left, int right, int depth) {
+        if (right - left < INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, left, right);
+            return;
+        }
+        if (depth == 0) {           // too many bad partitions: O(n log n) guaranteed from here
+            heapSort(a, left, right);
+            return;
+        }
+        // five evenly spaced samples, sorted in place; the 2nd and 4th become the pivots
+        int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+        int e3 = (left + right) >>> 1;
+        int e2 = e3 - seventh, e1 = e2 - seventh;
+        int e4 = e3 + seventh, e5 = e4 + seventh;
+        sortSamples(a, e1, e2, e3, e4, e5);
+        swap(a, e2, left);
+        swap(a, e4, right);
+        long p = a[left], q = a[right];
+        int lt = left + 1, gt = right - 1, k = lt;
+        while (k <= gt) {
+            if (a[k] < p)
+                swap(a, k, lt++);           // belongs to the left part
+            else if (a[k] > q) {
+                while (a[gt] > q && k < gt)
+                    gt--;
+                swap(a, k, gt--);           // belongs to the right part
+                if (a[k] < p)
+                    swap(a, k, lt++);
+            }
+            k++;
+        }
+        swap(a, left, --lt);    // pivots to their final positions
+        swap(a, right, ++gt);
+        dualPivotQuicksort(a, left, lt - 1, depth - 1);
+        if (p < q)              // with equal pivots the middle part is already sorted
+            dualPivotQuicksort(a, lt + 1, gt - 1, depth - 1);
+        dualPivotQuicksort(a, gt + 1, right, depth - 1);
+    }
+
+    // optimal sorting network for the five samples
+    private static void sortSamples(long[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    private static void compareSwap(long[] a, int i, int j) {
+        if (a[i] > a[j])
+            swap(a, i, j);
+    }
+
+    // insertion sort on [left, right], used for the small partitions
+    private static void insertionSort(long[] data, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            long current = data[i];
+            int k = i;
+            while (k > left && data[k-1] > current) {
+                data[k] = data[k-1];    // slide right
+                k--;
+            }
+            data[k] = current;
+        }
+    }
+
+    // heap sort on [left, right], the fallback of the quicksort
+    private static void heapSort(long[] a, int left, int right) {
+        int n = right - left + 1;
+        for (int j = n / 2 - 1; j >= 0; j--)
+            siftDown(a, left, j, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, left, left + end);  // current maximum to the end
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int base, int j, int n) {
+        long item = a[base + j];
+        while (2 * j + 1 < n) {
+            int child = 2 * j + 1;
+            if (child + 1 < n && a[base + child + 1] > a[base + child])
+                child++;
+            if (item >= a[base + child])
+                break;
+            a[base + j] = a[base + child];
+            j = child;
+        }
+        a[base + j] = item;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * Rearranges the array so that data[k] holds the value it would hold if
+     * the array were sorted, with no greater value before it and no smaller
+     * value after it. Expected O(n), O(n) in the worst case too.
+     *
+     * @param data the array
+     * @param k    the index of the value to select
+     * @return the k-th smallest value, counting from 0
+     * @throws ArrayIndexOutOfBoundsException if k is not an index of the array
+     */
+    public static long select(long[] data, int k) {
+        checkIndex(data.length, k);
+        introselect(data, 0, data.length - 1, k, 2 * log2(data.length));
+        return data[k];
+    }
+
+    /**
+     * Moves the k smallest values of the array, sorted, to data[0..k); the
+     * other values follow in no particular order. O(n + k log k).
+     *
+     * @param data the array
+     * @param k    the number of values to sort
+     * @throws ArrayIndexOutOfBoundsException if k is negative or greater than the length
+     */
+    public static void partialSort(long[] data, int k) {
+        checkRange(data.length, 0, k);
+        if (k == 0)
+            return;
+        introselect(data, 0, data.length - 1, k - 1, 2 * log2(data.length));
+        sort(data, 0, k - 1);   // data[k-1] is already in place
+    }
+
+    private static void introselect(long[] a, int left, int right, int k, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            long p;
+            if (depth > 0) {        // pivot: median of the five samples of the quicksort
+                depth--;
+                int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+                int e3 = (left + right) >>> 1;
+                sortSamples(a, e3 - 2 * seventh, e3 - seventh, e3, e3 + seventh, e3 + 2 * seventh);
+                p = a[e3];
+            } else                  // too many bad partitions: guaranteed pivots from here
+                p = medianOfMedians(a, left, right);
+            // three-way partition: [left, lt) < p, [lt, gt] == p, (gt, right] > p
+            int lt = left, gt = right, i = left;
+            while (i <= gt) {
+                if (a[i] < p)
+                    swap(a, lt++, i++);
+                else if (a[i] > p)
+                    swap(a, i, gt--);
+                else
+                    i++;
+            }
+            if (k < lt)
+                right = lt - 1;
+            else if (k > gt)
+                left = gt + 1;
+            else
+                return;             // k falls among the copies of the pivot
+        }
+        insertionSort(a, left, right);
+    }
+
+    // median of the medians of groups of five: at least 3/10 of the range lies on each side of it
+    private static long medianOfMedians(long[] a, int left, int right) {
+        int m = left;
+        for (int g = left; g <= right; g += 5) {
+            int end = Math.min(g + 4, right);
+            insertionSort(a, g, end);
+            swap(a, m++, (g + end) >>> 1);  // medians gathered at the front
+        }
+        int mid = (left + m - 1) >>> 1;
+        introselect(a, left, m - 1, mid, 0);
+        return a[mid];
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a dual-pivot quicksort.
+     *
+     * @param data the array to sort
+     */
+    public static void sort(double[] data) {
+        sort(data, 0, data.length);
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the array into ascending numerical order.
+     *
+     * @param data      the array to sort
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static void sort(double[] data, int fromIndex, int toIndex) {
+        checkRange(data.length, fromIndex, toIndex);
+        toIndex = moveNaNs(data, fromIndex, toIndex);
+        dualPivotQuicksort(data, fromIndex, toIndex - 1, 2 * log2(toIndex - fromIndex));
+        orderZeros(data, fromIndex, toIndex);
+    }
+
+    private static void dualPivotQuicksort(double[] a, int left, int right, int depth) {
+        if (right - left < INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, left, right);
+            return;
+        }
+        if (depth == 0) {           // too many bad partitions: O(n log n) guaranteed from here
+            heapSort(a, left, right);
+            return;
+        }
+        // five evenly spaced samples, sorted in place; the 2nd and 4th become the pivots
+        int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+        int e3 = (left + right) >>> 1;
+        int e2 = e3 - seventh, e1 = e2 - seventh;
+        int e4 = e3 + seventh, e5 = e4 + seventh;
+        sortSamples(a, e1, e2, e3, e4, e5);
+        swap(a, e2, left);
+        swap(a, e4, right);
+        double p = a[left], q = a[right];
+        int lt = left + 1, gt = right - 1, k = lt;
+        while (k <= gt) {
+            if (a[k] < p)
+                swap(a, k, lt++);           // belongs to the left part
+            else if (a[k] > q) {
+                while (a[gt] > q && k < gt)
+                    gt--;
+                swap(a, k, gt--);           // belongs to the right part
+                if (a[k] < p)
+                    swap(a, k, lt++);
+            }
+            k++;
+        }
+        swap(a, left, --lt);    // pivots to their final positions
+        swap(a, right, ++gt);
+        dualPivotQuicksort(a, left, lt - 1, depth - 1);
+        if (p < q)              // with equal pivots the middle part is already sorted
+            dualPivotQuicksort(a, lt + 1, gt - 1, depth - 1);
+        dualPivotQuicksort(a, gt + 1, right, depth - 1);
+    }
+
+    // optimal sorting network for the five samples
+    private static void sortSamples(double[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    private static void compareSwap(double[] a, int i, int j) {
+        if (a[i] > a[j])
+            swap(a, i, j);
+    }
+
+    // insertion sort on [left, right], used for the small partitions
+    private static void insertionSort(double[] data, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            double current = data[i];
+            int k = i;
+            while (k > left && data[k-1] > current) {
+                data[k] = data[k-1];    // slide right
+                k--;
+            }
+            data[k] = current;
+        }
+    }
+
+    // heap sort on [left, right], the fallback of the quicksort
+    private static void heapSort(double[] a, int left, int right) {
+        int n = right - left + 1;
+        for (int j = n / 2 - 1; j >= 0; j--)
+            siftDown(a, left, j, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, left, left + end);  // current maximum to the end
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int base, int j, int n) {
+        double item = a[base + j];
+        while (2 * j + 1 < n) {
+            int child = 2 * j + 1;
+            if (child + 1 < n && a[base + child + 1] > a[base + child])
+                child++;
+            if (item >= a[base + child])
+                break;
+            a[base + j] = a[base + child];
+            j = child;
+        }
+        a[base + j] = item;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    // NaNs are moved to the end of the range, where they belong, and excluded from the comparisons;
+    // returns the end of the numbers
+    private static int moveNaNs(double[] a, int fromIndex, int toIndex) {
+        int end = toIndex;
+        for (int k = toIndex - 1; k >= fromIndex; k--) {
+            if (Double.isNaN(a[k])) {
+                a[k] = a[--end];
+                a[end] = Double.NaN;
+            }
+        }
+        return end;
+    }
+
+    // -0.0 == 0.0 for the comparisons, so the run of zeros is rewritten with the negative ones first
+    private static void orderZeros(double[] a, int fromIndex, int toIndex) {
+        int low = fromIndex, high = toIndex;
+        while (low < high) {        // first index holding a value >= 0.0
+            int mid = (low + high) >>> 1;
+            if (a[mid] < 0.0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        int negative = 0, k = low;
+        for (; k < toIndex && a[k] == 0.0; k++)
+            if (Double.doubleToRawLongBits(a[k]) < 0)
+                negative++;
+        for (int i = low; i < k; i++)
+            a[i] = (i < low + negative) ? -0.0 : 0.0;
+    }
+
+    /**
+     * Rearranges the array so that data[k] holds the value it would hold if
+     * the array were sorted, with no greater value before it and no smaller
+     * value after it. NaNs count as the largest values and -0.0 as smaller
+     * than 0.0, as in sort. Expected O(n), O(n) in the worst case too.
+     *
+     * @param data the array
+     * @param k    the index of the value to select
+     * @return the k-th smallest value, counting from 0
+     * @throws ArrayIndexOutOfBoundsException if k is not an index of the array
+     */
+    public static double select(double[] data, int k) {
+        checkIndex(data.length, k);
+        int end = moveNaNs(data, 0, data.length);
+        if (k < end) {
+            introselect(data, 0, end - 1, k, 2 * log2(end));
+            orderZerosAround(data, end, k);
+        }
+        return data[k];
+    }
+
+    /**
+     * Moves the k smallest values of the array, sorted, to data[0..k); the
+     * other values follow in no particular order. O(n + k log k).
+     *
+     * @param data the array
+     * @param k    the number of values to sort
+     * @throws ArrayIndexOutOfBoundsException if k is negative or greater than the length
+     */
+    public static void partialSort(double[] data, int k) {
+        checkRange(data.length, 0, k);
+        int end = moveNaNs(data, 0, data.length);
+        if (k >= end) {             // only NaNs are left out
+            sort(data, 0, end);
+            return;
+        }
+        if (k == 0)
+            return;
+        introselect(data, 0, end - 1, k - 1, 2 * log2(end));
+        orderZerosAround(data, end, k - 1);
+        sort(data, 0, k - 1);   // data[k-1] is already in place
+    }
+
+    private static void introselect(double[] a, int left, int right, int k, int depth) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            double p;
+            if (depth > 0) {        // pivot: median of the five samples of the quicksort
+                depth--;
+                int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+                int e3 = (left + right) >>> 1;
+                sortSamples(a, e3 - 2 * seventh, e3 - seventh, e3, e3 + seventh, e3 + 2 * seventh);
+                p = a[e3];
+            } else                  // too many bad partitions: guaranteed pivots from here
+                p = medianOfMedians(a, left, right);
+            // three-way partition: [left, lt) < p, [lt, gt] == p, (gt, right] > p
+            int lt = left, gt = right, i = left;
+            while (i <= gt) {
+                if (a[i] < p)
+                    swap(a, lt++, i++);
+                else if (a[i] > p)
+                    swap(a, i, gt--);
+                else
+                    i++;
+            }
+            if (k < lt)
+                right = lt - 1;
+            else if (k > gt)
+                left = gt + 1;
+            else
+                return;             // k falls among the copies of the pivot
+        }
+        insertionSort(a, left, right);
+    }
+
+    // median of the medians of groups of five: at least 3/10 of the range lies on each side of it
+    private static double medianOfMedians(double[] a, int left, int right) {
+        int m = left;
+        for (int g = left; g <= right; g += 5) {
+            int end = Math.min(g + 4, right);
+            insertionSort(a, g, end);
+            swap(a, m++, (g + end) >>> 1);  // medians gathered at the front
+        }
+        int mid = (left + m - 1) >>> 1;
+        introselect(a, left, m - 1, mid, 0);
+        return a[mid];
+    }
+
+    // the partitions see -0.0 and 0.0 as equal: when a zero is selected, the zeros on both sides of k
+    // are gathered next to it and rewritten with the negative ones first, as in the sorted array
+    private static void orderZerosAround(double[] a, int end, int k) {
+        if (a[k] != 0.0)
+            return;
+        int low = k, high = k + 1;
+        for (int i = k - 1; i >= 0; i--)
+            if (a[i] == 0.0)
+                swap(a, i, --low);
+        for (int i = k + 1; i < end; i++)
+            if (a[i] == 0.0)
+                swap(a, i, high++);
+        int negative = 0;
+        for (int i = low; i < high; i++)
+            if (Double.doubleToRawLongBits(a[i]) < 0)
+                negative++;
+        for (int i = low; i < high; i++)
+            a[i] = (i < low + negative) ? -0.0 : 0.0;
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a dual-pivot quicksort.
+     *
+     * @param data the array to sort
+     */
+    public static void sort(char[] data) {
+        sort(data, 0, data.length);
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the array into ascending numerical order.
+     *
+     * @param data      the array to sort
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static void sort(char[] data, int fromIndex, int toIndex) {
+        checkRange(data.length, fromIndex, toIndex);
+        if (toIndex - fromIndex > COUNTING_SORT_THRESHOLD) {
+            countingSort(data, fromIndex, toIndex);
+            return;
+        }
+        dualPivotQuicksort(data, fromIndex, toIndex - 1, 2 * log2(toIndex - fromIndex));
+    }
+
+    private static void dualPivotQuicksort(char[] a, int left, int right, int depth) {
+        if (right - left < INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, left, right);
+            return;
+        }
+        if (depth == 0) {           // too many bad partitions: O(n log n) guaranteed from here
+            heapSort(a, left, right);
+            return;
+        }
+        // five evenly spaced samples, sorted in place; the 2nd and 4th become the pivots
+        int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+        int e3 = (left + right) >>> 1;
+        int e2 = e3 - seventh, e1 = e2 - seventh;
+        int e4 = e3 + seventh, e5 = e4 + seventh;
+        sortSamples(a, e1, e2, e3, e4, e5);
+        swap(a, e2, left);
+        swap(a, e4, right);
+        char p = a[left], q = a[right];
+        int lt = left + 1, gt = right - 1, k = lt;
+        while (k <= gt) {
+            if (a[k] < p)
+                swap(a, k, lt++);           // belongs to the left part
+            else if (a[k] > q) {
+                while (a[gt] > q && k < gt)
+                    gt--;
+                swap(a, k, gt--);           // belongs to the right part
+                if (a[k] < p)
+                    swap(a, k, lt++);
+            }
+            k++;
+        }
+        swap(a, left, --lt);    // pivots to their final positions
+        swap(a, right, ++gt);
+        dualPivotQuicksort(a, left, lt - 1, depth - 1);
+        if (p < q)              // with equal pivots the middle part is already sorted
+            dualPivotQuicksort(a, lt + 1, gt - 1, depth - 1);
+        dualPivotQuicksort(a, gt + 1, right, depth - 1);
+    }
+
+    // optimal sorting network for the five samples
+    private static void sortSamples(char[] a, int e1, int e2, int e3, int e4, int e5) {
+        compareSwap(a, e1, e2);
+        compareSwap(a, e4, e5);
+        compareSwap(a, e3, e5);
+        compareSwap(a, e3, e4);
+        compareSwap(a, e1, e4);
+        compareSwap(a, e1, e3);
+        compareSwap(a, e2, e5);
+        compareSwap(a, e2, e4);
+        compareSwap(a, e2, e3);
+    }
+
+    private static void compareSwap(char[] a, int i, int j) {
+        if (a[i] > a[j])
+            swap(a, i, j);
+    }
+
+    // insertion sort on [left, right], used for the small partitions
+    private static void insertionSort(char[] data, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
             char current = data[i];
             int k = i;
-            while(k > 0 && data[k-1] > current){
+            while (k > left && data[k-1] > current) {
                 data[k] = data[k-1];    // slide right
-                k--;                    // consider the previus k
+                k--;
             }
-            // no more slices needed
             data[k] = current;
         }
     }
-    
-}
\ No newline at end of file
+
+    // heap sort on [left, right], the fallback of the quicksort
+    private static void heapSort(char[] a, int left, int right) {
+        int n = right - left + 1;
+        for (int j = n / 2 - 1; j >= 0; j--)
+            siftDown(a, left, j, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, left, left + end);  // current maximum to the end
+            siftDown(a, left, 0, end);
+        }
+    }
+
+    private static void siftDown(char[] a, int base, int j, int n) {
+        char item = a[base + j];
+        while (2 * j + 1 < n) {
+            int child = 2 * j + 1;
+            if (child + 1 < n && a[base + child + 1] > a[base + child])
+                child++;
+            if (item >= a[base + child])
+                break;
+            a[base + j] = a[base + child];
+            j = child;
+        }
+        a[base + j] = item;
+    }
+
+    private static void swap(char[] a, int i, int j) {
+        char temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    // with only 65536 possible values, large char arrays are sorted in O(n + 65536) by counting them
+    private static void countingSort(char[] a, int fromIndex, int toIndex) {
+        int[] count = new int[Character.MAX_VALUE + 1];
+        for (int i = fromIndex; i < toIndex; i++)
+            count[a[i]]++;
+        int k = fromIndex;
+        for (int value = 0; value < count.length; value++)
+            for (int c = count[value]; c > 0; c--)
+                a[k++] = (char) value;
+    }
+
+    /**
+     * Sorts the array according to the natural ordering of its elements.
+     * The sort is stable: equal elements keep their relative order.
+     *
+     * @param data the array to sort
+     */
+    public static <T extends Comparable<? super T>> void sort(T[] data) {
+        sort(data, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the array according to the given comparator with a stable,
+     * adaptive merge sort: O(n) on already sorted or reversed input, O(n log n)
+     * in the worst case.
+     *
+     * @param data the array to sort
+     * @param comp the comparator defining the order of the elements
+     */
+    public static <T> void sort(T[] data, Comparator<? super T> comp) {
+        sort(data, 0, data.length, comp);
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the array according to the given
+     * comparator with a stable, adaptive merge sort.
+     *
+     * @param data      the array to sort
+     * @param fromIndex the first index of the range, inclusive
+     * @param toIndex   the last index of the range, exclusive
+     * @param comp      the comparator defining the order of the elements
+     * @throws ArrayIndexOutOfBoundsException if the range is not valid
+     */
+    public static <T> void sort(T[] data, int fromIndex, int toIndex, Comparator<? super T> comp) {
+        checkRange(data.length, fromIndex, toIndex);
+        new RunMerger<T>(data, comp).sort(fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts the list according to the given comparator, with the same stable
+     * merge sort used for arrays.
+     *
+     * @param list the list to sort
+     * @param comp the comparator defining the order of the elements
+     */
+    public static <T> void sort(ArrayList<T> list, Comparator<? super T> comp) {
+        T[] data = list.toArray();
+        sort(data, comp);
+        for (int i = 0; i < data.length; i++)
+            list.set(i, data[i]);
+    }
+
+    /**
+     * Rearranges the array so that data[k] holds the element it would hold
+     * if the array were sorted by natural ordering, with no greater element
+     * before it and no smaller element after it. Expected O(n), O(n) in the
+     * worst case too. The order of equal elements is not preserved.
+     *
+     * @param data the array
+     * @param k    the index of the element to select
+     * @return the k-th smallest element, counting from 0
+     * @throws ArrayIndexOutOfBoundsException if k is not an index of the array
+     */
+    public static <T extends Comparable<? super T>> T select(T[] data, int k) {
+        return select(data, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Rearranges the array so that data[k] holds the element it would hold
+     * if the array were sorted by the given comparator, with no greater
+     * element before it and no smaller element after it. Expected O(n), O(n)
+     * in the worst case too. The order of equal elements is not preserved.
+     *
+     * @param data the array
+     * @param k    the index of the element to select
+     * @param comp the comparator defining the order of the elements
+     * @return the k-th smallest element, counting from 0
+     * @throws ArrayIndexOutOfBoundsException if k is not an index of the array
+     */
+    public static <T> T select(T[] data, int k, Comparator<? super T> comp) {
+        checkIndex(data.length, k);
+        introselect(data, 0, data.length - 1, k, 2 * log2(data.length), comp);
+        return data[k];
+    }
+
+    /**
+     * Moves the k smallest elements of the array by natural ordering, sorted,
+     * to data[0..k); the other elements follow in no particular order.
+     * O(n + k log k).
+     *
+     * @param data the array
+     * @param k    the number of elements to sort
+     * @throws ArrayIndexOutOfBoundsException if k is negative or greater than the length
+     */
+    public static <T extends Comparable<? super T>> void partialSort(T[] data, int k) {
+        partialSort(data, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Moves the k smallest elements of the array according to the given
+     * comparator, sorted, to data[0..k); the other elements follow in no
+     * particular order. O(n + k log k).
+     *
+     * @param data the array
+     * @param k    the number of elements to sort
+     * @param comp the comparator defining the order of the elements
+     * @throws ArrayIndexOutOfBoundsException if k is negative or greater than the length
+     */
+    public static <T> void partialSort(T[] data, int k, Comparator<? super T> comp) {
+        checkRange(data.length, 0, k);
+        if (k == 0)
+            return;
+        introselect(data, 0, data.length - 1, k - 1, 2 * log2(data.length), comp);
+        sort(data, 0, k - 1, comp);     // data[k-1] is already in place
+    }
+
+    private static <T> void introselect(T[] a, int left, int right, int k, int depth, Comparator<? super T> comp) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            T p;
+            if (depth > 0) {        // pivot: median of five evenly spaced samples
+                depth--;
+                int seventh = ((right - left + 1) >> 3) + ((right - left + 1) >> 6) + 1;
+                int e3 = (left + right) >>> 1;
+                sortSamples(a, e3 - 2 * seventh, e3 - seventh, e3, e3 + seventh, e3 + 2 * seventh, comp);
+                p = a[e3];
+            } else                  // too many bad partitions: guaranteed pivots from here
+                p = medianOfMedians(a, left, right, comp);
+            // three-way partition: [left, lt) < p, [lt, gt] == p, (gt, right] > p
+            int lt = left, gt = right, i = left;
+            while (i <= gt) {
+                int c = comp.compare(a[i], p);
+                if (c < 0)
+                    swap(a, lt++, i++);
+                else if (c > 0)
+                    swap(a, i, gt--);
+                else
+                    i++;
+            }
+            if (k < lt)
+                right = lt - 1;
+            else if (k > gt)
+                left = gt + 1;
+            else
+                return;             // k falls among the elements equal to the pivot
+        }
+        insertionSort(a, left, right, comp);
+    }
+
+    // median of the medians of groups of five: at least 3/10 of the range lies on each side of it
+    private static <T> T medianOfMedians(T[] a, int left, int right, Comparator<? super T> comp) {
+        int m = left;
+        for (int g = left; g <= right; g += 5) {
+            int end = Math.min(g + 4, right);
+            insertionSort(a, g, end, comp);
+            swap(a, m++, (g + end) >>> 1);  // medians gathered at the front
+        }
+        int mid = (left + m - 1) >>> 1;
+        introselect(a, left, m - 1, mid, 0, comp);
+        return a[mid];
+    }
+
+    private static <T> void sortSamples(T[] a, int e1, int e2, int e3, int e4, int e5, Comparator<? super T> comp) {
+        compareSwap(a, e1, e2, comp);
+        compareSwap(a, e4, e5, comp);
+        compareSwap(a, e3, e5, comp);
+        compareSwap(a, e3, e4, comp);
+        compareSwap(a, e1, e4, comp);
+        compareSwap(a, e1, e3, comp);
+        compareSwap(a, e2, e5, comp);
+        compareSwap(a, e2, e4, comp);
+        compareSwap(a, e2, e3, comp);
+    }
+
+    private static <T> void compareSwap(T[] a, int i, int j, Comparator<? super T> comp) {
+        if (comp.compare(a[i], a[j]) > 0)
+            swap(a, i, j);
+    }
+
+    private static <T> void insertionSort(T[] a, int left, int right, Comparator<? super T> comp) {
+        for (int i = left + 1; i <= right; i++) {
+            T current = a[i];
+            int k = i;
+            while (k > left && comp.compare(a[k-1], current) > 0) {
+                a[k] = a[k-1];
+                k--;
+            }
+            a[k] = current;
+        }
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * Sorts the array according to the natural ordering of its elements,
+     * using all the available processors. The sort is stable.
+     *
+     * @param data the array to sort
+     */
+    public static <T extends Comparable<? super T>> void parallelSort(T[] data) {
+        parallelSort(data, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the array according to the given comparator with a fork-join
+     * merge sort. The array is split in halves recursively; pieces shorter
+     * than PARALLEL_MERGE_THRESHOLD are sorted sequentially with the adaptive
+     * merge sort, and the sorted halves are merged in parallel as well, by
+     * splitting the larger half at its middle and the other one at the
+     * matching position. The sort is stable and uses a buffer of n elements.
+     * Below the threshold, or with a single processor, it is the same as sort.
+     *
+     * @param data the array to sort
+     * @param comp the comparator defining the order of the elements
+     */
+    public static <T> void parallelSort(T[] data, Comparator<? super T> comp) {
+        int n = data.length;
+        if (n <= PARALLEL_MERGE_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            sort(data, comp);
+            return;
+        }
+        Object[] buffer = new Object[n];
+        ForkJoinPool.commonPool().invoke(new MergeSortTask<T>(data, buffer, 0, n, false, comp));
+    }
+
+    /**
+     * Sorts [lo, hi) leaving the result in data, or in buffer when intoBuffer is true.
+     * The halves are sorted into the other array and then merged into the requested one,
+     * so no copy back is needed between levels.
+     */
+    private static class MergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] data;
+        private final Object[] buffer;
+        private final int lo, hi;
+        private final boolean intoBuffer;
+        private final Comparator<? super T> comp;
+
+        MergeSortTask(T[] data, Object[] buffer, int lo, int hi, boolean intoBuffer, Comparator<? super T> comp) {
+            this.data = data;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuffer = intoBuffer;
+            this.comp = comp;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_MERGE_THRESHOLD) {
+                sort(data, lo, hi, comp);
+                if (intoBuffer)
+                    System.arraycopy(data, lo, buffer, lo, hi - lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSortTask<T>(data, buffer, lo, mid, !intoBuffer, comp),
+                      new MergeSortTask<T>(data, buffer, mid, hi, !intoBuffer, comp));
+            Object[] src = intoBuffer ? data : buffer;
+            Object[] dst = intoBuffer ? buffer : data;
+            new MergeTask<T>(src, lo, mid, mid, hi, dst, lo, comp).compute();
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [lo1, hi1) and [lo2, hi2) of src into dst starting at dest,
+     * splitting the work in two independent merges while it is large enough.
+     */
+    private static class MergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src, dst;
+        private final int lo1, hi1, lo2, hi2, dest;
+        private final Comparator<? super T> comp;
+
+        MergeTask(Object[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int dest, Comparator<? super T> comp) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dest = dest;
+            this.comp = comp;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(int i, int j) {
+            return comp.compare((T) src[i], (T) src[j]);
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1, len2 = hi2 - lo2;
+            if (len1 + len2 <= PARALLEL_MERGE_THRESHOLD) {
+                int i = lo1, j = lo2, k = dest;
+                while (i < hi1 && j < hi2)
+                    dst[k++] = (compare(j, i) < 0) ? src[j++] : src[i++];  // ties from the left: stable
+                System.arraycopy(src, i, dst, k, hi1 - i);
+                System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+                return;
+            }
+            int m1, m2;
+            if (len1 >= len2) {     // split the left run at its middle, the right one before equal keys
+                m1 = (lo1 + hi1) >>> 1;
+                int low = lo2, high = hi2;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (compare(mid, m1) < 0)
+                        low = mid + 1;
+                    else
+                        high = mid;
+                }
+                m2 = low;
+            } else {                // split the right run at its middle, the left one after equal keys
+                m2 = (lo2 + hi2) >>> 1;
+                int low = lo1, high = hi1;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (compare(m2, mid) < 0)
+                        high = mid;
+                    else
+                        low = mid + 1;
+                }
+                m1 = low;
+            }
+            invokeAll(new MergeTask<T>(src, lo1, m1, lo2, m2, dst, dest, comp),
+                      new MergeTask<T>(src, m1, hi1, m2, hi2, dst, dest + (m1 - lo1) + (m2 - lo2), comp));
+        }
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a parallel LSD radix
+     * sort: four passes over 8-bit digits, the lowest first. In every pass the
+     * array is split into one chunk per processor; the chunks count their
+     * digits in parallel, the counts are turned into per-chunk offsets, and
+     * the chunks scatter their elements in parallel into a buffer of n ints.
+     * Passes where all the elements share the same digit are skipped. Below
+     * RADIX_THRESHOLD, or with a single processor, the sequential sort is used.
+     *
+     * @param data the array to sort
+     */
+    public static void parallelRadixSort(int[] data) {
+        int n = data.length;
+        int chunks = ForkJoinPool.getCommonPoolParallelism();
+        if (n < RADIX_THRESHOLD || chunks <= 1) {
+            sort(data);
+            return;
+        }
+        int[] src = data, dst = new int[n];
+        for (int shift = 0; shift < 32; shift += 8) {
+            final int s = shift;
+            final int[] in = src, out = dst;
+            final int[][] offsets = new int[chunks][RADIX];
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] count = offsets[c];
+                for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++)
+                    count[digit(in[i], s)]++;
+            });
+            if (!prefixOffsets(offsets, n))
+                continue;   // every element has the same digit: nothing to move
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] offset = offsets[c];
+                for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++)
+                    out[offset[digit(in[i], s)]++] = in[i];
+            });
+            src = out;
+            dst = in;
+        }
+        if (src != data)
+            System.arraycopy(src, 0, data, 0, n);
+    }
+
+    /**
+     * Sorts the array into ascending numerical order with a parallel LSD radix
+     * sort over eight 8-bit digits, as parallelRadixSort(int[]).
+     *
+     * @param data the array to sort
+     */
+    public static void parallelRadixSort(long[] data) {
+        if (data.length < RADIX_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            sort(data);
+            return;
+        }
+        radixSort(data, null);
+    }
+
+    /**
+     * Sorts the array by the long key extracted from every element, with a
+     * parallel LSD radix sort. Keys are extracted once, in parallel, and the
+     * elements move together with their keys; the sort is stable.
+     *
+     * @param data the array to sort
+     * @param key  the function extracting the sort key of an element
+     */
+    public static <T> void parallelRadixSort(T[] data, ToLongFunction<? super T> key) {
+        if (data.length < RADIX_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            sort(data, Comparator.comparingLong(key));
+            return;
+        }
+        long[] keys = new long[data.length];
+        IntStream.range(0, data.length).parallel().forEach(i -> keys[i] = key.applyAsLong(data[i]));
+        radixSort(keys, data);
+    }
+
+    // LSD radix sort of keys; when items is not null, items[i] moves together with keys[i]
+    private static void radixSort(long[] keys, Object[] items) {
+        int n = keys.length;
+        int chunks = ForkJoinPool.getCommonPoolParallelism();
+        long[] src = keys, dst = new long[n];
+        Object[] srcItems = items, dstItems = (items == null) ? null : new Object[n];
+        for (int shift = 0; shift < 64; shift += 8) {
+            final int s = shift;
+            final long[] in = src, out = dst;
+            final Object[] inItems = srcItems, outItems = dstItems;
+            final int[][] offsets = new int[chunks][RADIX];
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] count = offsets[c];
+                for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++)
+                    count[digit(in[i], s)]++;
+            });
+            if (!prefixOffsets(offsets, n))
+                continue;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int[] offset = offsets[c];
+                for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                    int k = offset[digit(in[i], s)]++;
+                    out[k] = in[i];
+                    if (outItems != null)
+                        outItems[k] = inItems[i];
+                }
+            });
+            src = out;
+            dst = in;
+            srcItems = outItems;
+            dstItems = inItems;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (items != null)
+                System.arraycopy(srcItems, 0, items, 0, n);
+        }
+    }
+
+    private static int chunkStart(int n, int chunks, int c) {
+        return (int) ((long) n * c / chunks);
+    }
+
+    // 8-bit digit at the given shift; the sign bit is flipped in the top digit so negatives come first
+    private static int digit(int v, int shift) {
+        return shift == 24 ? ((v >>> 24) ^ 0x80) : (v >>> shift) & 0xFF;
+    }
+
+    private static int digit(long v, int shift) {
+        return shift == 56 ? (int) ((v >>> 56) ^ 0x80) : (int) (v >>> shift) & 0xFF;
+    }
+
+    /**
+     * Turns the per-chunk digit counts into the positions where each chunk
+     * writes its first element of every digit: digits in order, and within a
+     * digit the chunks in order, which keeps the pass stable.
+     * Returns false if a single digit holds all the n elements.
+     */
+    private static boolean prefixOffsets(int[][] counts, int n) {
+        int running = 0;
+        for (int d = 0; d < RADIX; d++) {
+            int start = running;
+            for (int[] count : counts) {
+                int c = count[d];
+                count[d] = running;
+                running += c;
+            }
+            if (running - start == n)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Natural merge sort in the style of TimSort.
+     *
+     * The input is scanned for natural runs (non-descending, or strictly
+     * descending ones which are reversed in place); runs shorter than a
+     * minimum length are extended with a binary insertion sort. Runs are
+     * pushed on a stack and merged while the lengths on the stack violate
+     * the TimSort invariants, which keeps merges balanced. Each merge first
+     * skips the prefix of the left run and the suffix of the right run that
+     * are already in place, then merges the rest through a temporary buffer
+     * holding the shorter of the two.
+     */
+    private static class RunMerger<T> {
+        private static final int MIN_MERGE = 32;
+
+        private final T[] a;
+        private final Comparator<? super T> comp;
+        private Object[] tmp = new Object[0];
+        private final int[] runBase = new int[64];
+        private final int[] runLen = new int[64];
+        private int stackSize = 0;
+
+        RunMerger(T[] a, Comparator<? super T> comp) {
+            this.a = a;
+            this.comp = comp;
+        }
+
+        void sort(int lo, int hi) {
+            int n = hi - lo;
+            if (n < 2)
+                return;
+            if (n < MIN_MERGE) {        // a single short run: no merging needed
+                int run = countRunAndMakeAscending(lo, hi);
+                binaryInsertionSort(lo, hi, lo + run);
+                return;
+            }
+            int minRun = minRunLength(n);
+            while (lo < hi) {
+                int run = countRunAndMakeAscending(lo, hi);
+                if (run < minRun) {
+                    int force = Math.min(hi - lo, minRun);
+                    binaryInsertionSort(lo, lo + force, lo + run);
+                    run = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = run;
+                stackSize++;
+                mergeCollapse();
+                lo += run;
+            }
+            while (stackSize > 1) {     // merge what is left, right to left
+                int n2 = stackSize - 2;
+                if (n2 > 0 && runLen[n2 - 1] < runLen[n2 + 1])
+                    n2--;
+                mergeAt(n2);
+            }
+        }
+
+        private static int minRunLength(int n) {
+            int r = 0;
+            while (n >= MIN_MERGE) {
+                r |= (n & 1);
+                n >>= 1;
+            }
+            return n + r;
+        }
+
+        // returns the length of the run starting at lo, reversing it if descending
+        private int countRunAndMakeAscending(int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi)
+                return 1;
+            if (comp.compare(a[runHi++], a[lo]) < 0) {     // strictly descending
+                while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) < 0)
+                    runHi++;
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    T temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) >= 0)
+                    runHi++;
+            }
+            return runHi - lo;
+        }
+
+        // sorts [lo, hi) knowing that [lo, start) is already sorted
+        private void binaryInsertionSort(int lo, int hi, int start) {
+            for (; start < hi; start++) {
+                T pivot = a[start];
+                int left = lo, right = start;
+                while (left < right) {      // after equal elements, for stability
+                    int mid = (left + right) >>> 1;
+                    if (comp.compare(pivot, a[mid]) < 0)
+                        right = mid;
+                    else
+                        left = mid + 1;
+                }
+                System.arraycopy(a, left, a, left + 1, start - left);
+                a[left] = pivot;
+            }
+        }
+
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1])
+                        n--;
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;  // invariants hold
+                }
+                mergeAt(n);
+            }
+        }
+
+        // merges the runs at stack positions i and i+1
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            int base2 = runBase[i + 1], len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            // elements of run1 not greater than the first of run2 are already in place
+            int k = upperBound(a[base2], base1, base1 + len1);
+            len1 -= k - base1;
+            base1 = k;
+            if (len1 == 0)
+                return;
+            // elements of run2 not smaller than the last of run1 are already in place
+            len2 = lowerBound(a[base1 + len1 - 1], base2, base2 + len2) - base2;
+            if (len2 == 0)
+                return;
+            if (len1 <= len2)
+                mergeLo(base1, len1, base2, len2);
+            else
+                mergeHi(base1, len1, base2, len2);
+        }
+
+        private int upperBound(T key, int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comp.compare(key, a[mid]) < 0)
+                    hi = mid;
+                else
+                    lo = mid + 1;
+            }
+            return lo;
+        }
+
+        private int lowerBound(T key, int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comp.compare(a[mid], key) < 0)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        private Object[] ensureTmp(int n) {
+            if (tmp.length < n)
+                tmp = new Object[Math.max(n, Math.min(a.length >>> 1, 2 * n))];
+            return tmp;
+        }
+
+        // run1 is copied aside and the merge proceeds from the left
+        @SuppressWarnings("unchecked")
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            Object[] t = ensureTmp(len1);
+            System.arraycopy(a, base1, t, 0, len1);
+            int i = 0, j = base2, dest = base1;
+            int end2 = base2 + len2;
+            while (i < len1 && j < end2) {
+                if (comp.compare(a[j], (T) t[i]) < 0)
+                    a[dest++] = a[j++];
+                else
+                    a[dest++] = (T) t[i++];     // ties taken from run1: stable
+            }
+            System.arraycopy(t, i, a, dest, len1 - i);
+        }
+
+        // run2 is copied aside and the merge proceeds from the right
+        @SuppressWarnings("unchecked")
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            Object[] t = ensureTmp(len2);
+            System.arraycopy(a, base2, t, 0, len2);
+            int i = base1 + len1 - 1, j = len2 - 1, dest = base2 + len2 - 1;
+            while (i >= base1 && j >= 0) {
+                if (comp.compare((T) t[j], a[i]) < 0)
+                    a[dest--] = a[i--];
+                else
+                    a[dest--] = (T) t[j--];     // ties taken from run2: stable
+            }
+            System.arraycopy(t, 0, a, dest - j, j + 1);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/*  A small benchmark comparing Sorting with java.util.Arrays.sort (and Arrays.parallelSort for the
+    parallel entry points); select and partialSort are compared with a full sort of the same input.
+    Every case sorts fresh copies of the same input several times and reports the best time, after a few
+    warm-up rounds so that the JIT has compiled both implementations. Results are indicative only: for
+    rigorous numbers use a dedicated harness such as JMH.
+    Usage: java SortingBenchmark [n] [rounds] */
+public class SortingBenchmark {
+
+    private interface Sorter<A> {
+        void sort(A data);
+    }
+
+    private interface Copier<A> {
+        A copy(A data);
+    }
+
+    private static <A> long best(A input, Copier<A> copier, Sorter<A> sorter, int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            A data = copier.copy(input);
+            long start = System.nanoTime();
+            sorter.sort(data);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static <A> void compare(String name, A input, Copier<A> copier, Sorter<A> ours, Sorter<A> jdk, int rounds) {
+        best(input, copier, ours, 3);   // warm-up
+        best(input, copier, jdk, 3);
+        long a = best(input, copier, ours, rounds);
+        long b = best(input, copier, jdk, rounds);
+        System.out.printf("%-28s Sorting %9.2f ms   java.util.Arrays %9.2f ms%n", name, a / 1e6, b / 1e6);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Random random = new Random(42);
+
+        int[] ints = new int[n];
+        int[] fewDistinct = new int[n];
+        int[] nearlySorted = new int[n];
+        long[] longs = new long[n];
+        double[] doubles = new double[n];
+        char[] chars = new char[n];
+        Integer[] boxed = new Integer[n];
+        Integer[] boxedNearlySorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ints[i] = random.nextInt();
+            fewDistinct[i] = random.nextInt(16);
+            nearlySorted[i] = (i % 100 == 0) ? random.nextInt(n) : i;
+            longs[i] = random.nextLong();
+            doubles[i] = random.nextDouble();
+            chars[i] = (char) random.nextInt();
+            boxed[i] = ints[i];
+            boxedNearlySorted[i] = nearlySorted[i];
+        }
+        Comparator<Integer> natural = Comparator.naturalOrder();
+
+        System.out.println("n = " + n + ", best of " + rounds + " rounds");
+        compare("int[] random", ints, int[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("int[] 16 distinct values", fewDistinct, int[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("int[] nearly sorted", nearlySorted, int[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("long[] random", longs, long[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("double[] random", doubles, double[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("char[] random", chars, char[]::clone, Sorting::sort, Arrays::sort, rounds);
+        compare("Integer[] random", boxed, Integer[]::clone,
+                d -> Sorting.sort(d, natural), d -> Arrays.sort(d, natural), rounds);
+        compare("Integer[] nearly sorted", boxedNearlySorted, Integer[]::clone,
+                d -> Sorting.sort(d, natural), d -> Arrays.sort(d, natural), rounds);
+
+        System.out.println("selection against a full sort");
+        compare("select median int[]", ints, int[]::clone, d -> Sorting.select(d, d.length / 2), Arrays::sort, rounds);
+        compare("partialSort 100 int[]", ints, int[]::clone, d -> Sorting.partialSort(d, Math.min(100, d.length)),
+                Arrays::sort, rounds);
+        compare("select median Integer[]", boxed, Integer[]::clone,
+                d -> Sorting.select(d, d.length / 2, natural), d -> Arrays.sort(d, natural), rounds);
+
+        System.out.println("parallel, " + java.util.concurrent.ForkJoinPool.getCommonPoolParallelism() + " threads");
+        compare("parallelSort Integer[]", boxed, Integer[]::clone,
+                d -> Sorting.parallelSort(d, natural), d -> Arrays.parallelSort(d, natural), rounds);
+        compare("parallelRadixSort int[]", ints, int[]::clone,
+                Sorting::parallelRadixSort, Arrays::parallelSort, rounds);
+        compare("parallelRadixSort long[]", longs, long[]::clone,
+                Sorting::parallelRadixSort, Arrays::parallelSort, rounds);
+    }
+}
@@ -6,6 +6,10 @@ import java.util.NoSuchElementException;
  * A doubly-linked list implementation of the HDeque interface.
  * This class provides constant time O(1) performance for insertions
  * and removals at both ends of the deque.
+ * A deque constructed with a pool capacity keeps up to that many nodes of
+ * removed elements in a free list and reuses them for the next insertions,
+ * so a steady state of insertions and removals allocates nothing. Nodes never
+ * leave the deque, so they can be recycled without further checks.
  *
  * @param <E> the type of elements held in this deque
  */
@@ -13,6 +17,9 @@ public class LinkedDeque<E> implements Deque<E> {
     private Node<E> head;
     private Node<E> tail;
     private int size;
+    private final int poolCapacity;
+    private Node<E> pool = null;    // recycled nodes, linked through next
+    private int poolSize = 0;
 
     private static class Node<E> {
         E element;
@@ -30,11 +37,52 @@ public class LinkedDeque<E> implements Deque<E> {
      * Constructs an empty deque.
      */
     public LinkedDeque() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty deque that keeps up to poolCapacity nodes of
+     * removed elements for reuse.
+     *
+     * @param poolCapacity the maximum number of recycled nodes kept, 0 for none
+     * @throws IllegalArgumentException if poolCapacity is negative
+     */
+    public LinkedDeque(int poolCapacity) throws IllegalArgumentException {
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative");
+        }
+        this.poolCapacity = poolCapacity;
         head = null;
         tail = null;
         size = 0;
     }
 
+    // a recycled node if there is one, otherwise a new node
+    private Node<E> newNode(E e, Node<E> prev, Node<E> next) {
+        Node<E> node = pool;
+        if (node == null) {
+            return new Node<>(e, prev, next);
+        }
+        pool = node.next;
+        poolSize--;
+        node.element = e;
+        node.prev = prev;
+        node.next = next;
+        return node;
+    }
+
+    // clears a removed node and keeps it for reuse if the pool has room
+    private void recycle(Node<E> node) {
+        node.element = null;
+        node.prev = null;
+        node.next = null;
+        if (poolSize < poolCapacity) {
+            node.next = pool;
+            pool = node;
+            poolSize++;
+        }
+    }
+
     /**
      * Returns the number of elements in this deque.
      *
@@ -95,7 +143,7 @@ public class LinkedDeque<E> implements Deque<E> {
      */
     @Override
     public void addFirst(E e) {
-        Node<E> newNode = new Node<>(e, null, head);
+        Node<E> newNode = newNode(e, null, head);
         if (isEmpty()) {
             tail = newNode;
         } else {
@@ -113,7 +161,7 @@ public class LinkedDeque<E> implements Deque<E> {
      */
     @Override
     public void addLast(E e) {
-        Node<E> newNode = new Node<>(e, tail, null);
+        Node<E> newNode = newNode(e, tail, null);
         if (isEmpty()) {
             head = newNode;
         } else {
@@ -135,9 +183,11 @@ public class LinkedDeque<E> implements Deque<E> {
         if (isEmpty()) {
             throw new NoSuchElementException("Deque is empty");
         }
-        E element = head.element;
+        Node<E> removed = head;
+        E element = removed.element;
         head = head.next;
         size--;
+        recycle(removed);
         if (isEmpty()) {
             tail = null;
         } else {
@@ -158,9 +208,11 @@ public class LinkedDeque<E> implements Deque<E> {
         if (isEmpty()) {
             throw new NoSuchElementException("Deque is empty");
         }
-        E element = tail.element;
+        Node<E> removed = tail;
+        E element = removed.element;
         tail = tail.prev;
         size--;
+        recycle(removed);
         if (isEmpty()) {
             head = null;
         } else {